@@ -1,7 +1,17 @@
 package org.jmonkeyengine.simple_jme_android;
 
+import android.opengl.GLSurfaceView;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
 import com.jme3.app.AndroidHarnessFragment;
 
+import org.jmonkeyengine.simple_jme_android.gamelogic.Main;
+
+import mygame.IdleAppState;
+
 /**
  * A placeholder fragment containing a simple view.
  */
@@ -20,6 +30,7 @@ public class JmeFragment extends AndroidHarnessFragment {
 
         // Set the maximum framerate
         // (default = -1 for unlimited)
+        // While the scene is idle the view only renders on demand, see onCreateView
         frameRate = -1;
 
         // Set the maximum resolution dimension
@@ -46,4 +57,34 @@ public class JmeFragment extends AndroidHarnessFragment {
         splashPicID = 0;
     }
 
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        View layout = super.onCreateView(inflater, container, savedInstanceState);
+
+        // Stop the render loop while nothing changes, wake() renders one more frame which resumes it
+        Main app = (Main) getJmeApplication();
+        if (app != null && view != null) {
+            app.getIdleState().SetListener(new IdleAppState.Listener() {
+                @Override
+                public void IdleChanged(boolean isIdle) {
+                    view.setRenderMode(isIdle ? GLSurfaceView.RENDERMODE_WHEN_DIRTY : GLSurfaceView.RENDERMODE_CONTINUOUSLY);
+                }
+
+                @Override
+                public void WakeRequested() {
+                    view.requestRender();
+                }
+            });
+        }
+        return layout;
+    }
+
+    // Called by the activity for every input event, so a suspended render loop picks the event up
+    public void wake() {
+        Main app = (Main) getJmeApplication();
+        if (app != null) {
+            app.getIdleState().Wake();
+        }
+    }
+
 }
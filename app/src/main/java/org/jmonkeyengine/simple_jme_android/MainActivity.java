@@ -1,6 +1,8 @@
 package org.jmonkeyengine.simple_jme_android;
 
 import android.os.Bundle;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
 import android.support.v7.app.AppCompatActivity;
 
 public class MainActivity extends AppCompatActivity {
@@ -16,4 +18,24 @@ public class MainActivity extends AppCompatActivity {
 
 
     }
+
+    // Input wakes the jME render loop up when it is suspended because the scene was idle
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        wakeJme();
+        return super.dispatchTouchEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        wakeJme();
+        return super.dispatchKeyEvent(event);
+    }
+
+    private void wakeJme() {
+        JmeFragment fragment = (JmeFragment) getFragmentManager().findFragmentById(R.id.fragment);
+        if (fragment != null) {
+            fragment.wake();
+        }
+    }
 }
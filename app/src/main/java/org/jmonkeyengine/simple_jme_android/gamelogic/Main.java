@@ -1,35 +1,100 @@
 package org.jmonkeyengine.simple_jme_android.gamelogic;
 
 import com.jme3.app.SimpleApplication;
+import com.jme3.font.BitmapText;
 import com.jme3.material.Material;
 import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
 import com.jme3.scene.Spatial;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
+import mygame.IdleAppState;
+import mygame.ModelLoader;
+import mygame.Profiler4D;
+import mygame.StageProfiler;
+
+import org.jmonkeyengine.simple_jme_android.BuildConfig;
+
 public class Main extends SimpleApplication {
     private static final Logger logger = Logger.getLogger(Main.class.getName());
 
+    private ModelLoader modelLoader;
+
+    // Created with the application so the JmeFragment can set its listener before the render thread starts
+    private final IdleAppState idleState = new IdleAppState();
+
+    // Only with the PROFILE build config field, see app/build.gradle
+    private Profiler4D profiler;
+    private BitmapText profilerText;
+    private int profilerReportCount = 0;
+
     public void simpleInitApp() {
-        Spatial cone = assetManager.loadModel("Models/Cone/Cone.obj");
-        cone.setLocalTranslation(-5, 0, 0);
-        rootNode.attachChild(cone);
-        Material coneMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        coneMat.setColor("Color", ColorRGBA.Blue);
-        cone.setMaterial(coneMat);
-
-        Spatial cylinder = assetManager.loadModel("Models/Cylinder/Cylinder.obj");
-        cylinder.setLocalTranslation(5, 0, 0);
-        rootNode.attachChild(cylinder);
-        Material cylinderMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        cylinderMat.setColor("Color", ColorRGBA.Green);
-        cylinder.setMaterial(cylinderMat);
-
-        Spatial torus = assetManager.loadModel("Models/Torus/Torus.obj");
-        torus.setLocalTranslation(0, -5, 0);
-        rootNode.attachChild(torus);
-        Material torusMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        torusMat.setColor("Color", ColorRGBA.Red);
-        torus.setMaterial(torusMat);
+        stateManager.attach(idleState);
+
+        if (BuildConfig.PROFILE) {
+            initProfiler();
+        }
+
+        // The models load in parallel in the background, so the first frame does not wait for them
+        modelLoader = new ModelLoader(this);
+        loadModel("Models/Cone/Cone", new Vector3f(-5, 0, 0), ColorRGBA.Blue);
+        loadModel("Models/Cylinder/Cylinder", new Vector3f(5, 0, 0), ColorRGBA.Green);
+        loadModel("Models/Torus/Torus", new Vector3f(0, -5, 0), ColorRGBA.Red);
+    }
+
+    // Profiler4D logs its summary to logcat, it is also shown in the top left corner
+    private void initProfiler() {
+        profiler = new Profiler4D();
+        setAppProfiler(profiler);
+        StageProfiler.SetEnabled(true);
+
+        profilerText = new BitmapText(guiFont, false);
+        profilerText.setSize(guiFont.getCharSet().getRenderedSize());
+        profilerText.setLocalTranslation(0, cam.getHeight(), 0);
+        guiNode.attachChild(profilerText);
+    }
+
+    @Override
+    public void simpleUpdate(float tpf) {
+        if (profiler != null && profiler.GetReportCount() != profilerReportCount) {
+            profilerReportCount = profiler.GetReportCount();
+            profilerText.setText(profiler.GetSummary());
+        }
+    }
+
+    private void loadModel(String path, final Vector3f translation, final ColorRGBA color) {
+        modelLoader.Load(path, new ModelLoader.Listener() {
+            @Override
+            public void ModelLoaded(Spatial model) {
+                model.setLocalTranslation(translation);
+                Material mat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
+                mat.setColor("Color", color);
+                model.setMaterial(mat);
+                rootNode.attachChild(model);
+            }
+        });
+    }
+
+    public IdleAppState getIdleState() {
+        return idleState;
+    }
+
+    // Enqueued work, like an attached model, has to be shown even while the scene is idle
+    @Override
+    public <V> Future<V> enqueue(Callable<V> callable) {
+        Future<V> future = super.enqueue(callable);
+        idleState.Wake();
+        return future;
+    }
+
+    @Override
+    public void destroy() {
+        if (modelLoader != null) {
+            modelLoader.Shutdown();
+        }
+        super.destroy();
     }
 }
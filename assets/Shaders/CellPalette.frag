@@ -0,0 +1,18 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+#import "Shaders/CellPalette.glsllib"
+
+#ifdef HAS_COLOR
+    uniform vec4 m_Color;
+#endif
+
+varying float cellId;
+
+void main(){
+    vec4 color = getCellColor(cellId);
+
+    #ifdef HAS_COLOR
+        color *= m_Color;
+    #endif
+
+    gl_FragColor = color;
+}
@@ -0,0 +1,15 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_WorldViewProjectionMatrix;
+
+// The position projected on the CPU
+attribute vec3 inPosition;
+// The cell the vertex belongs to
+attribute float inTexCoord2;
+
+varying float cellId;
+
+void main(){
+    cellId = inTexCoord2;
+    gl_Position = g_WorldViewProjectionMatrix * vec4(inPosition, 1.0);
+}
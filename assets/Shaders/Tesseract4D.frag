@@ -0,0 +1,26 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+#ifdef HAS_CELL_PALETTE
+    #import "Shaders/CellPalette.glsllib"
+    varying float cellId;
+#endif
+
+#ifdef HAS_COLOR
+    uniform vec4 m_Color;
+#endif
+
+varying vec4 vertColor;
+
+void main(){
+    vec4 color = vertColor;
+
+    #ifdef HAS_CELL_PALETTE
+        color *= getCellColor(cellId);
+    #endif
+
+    #ifdef HAS_COLOR
+        color *= m_Color;
+    #endif
+
+    gl_FragColor = color;
+}
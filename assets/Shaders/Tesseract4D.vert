@@ -0,0 +1,60 @@
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+
+uniform mat4 g_WorldViewProjectionMatrix;
+uniform mat4 m_Orientation4D;
+uniform float m_LightOnW;
+
+// The 4D rest position of the vertex, uploaded once
+attribute vec4 inPosition;
+attribute vec4 inColor;
+
+#ifdef HAS_CELL_PALETTE
+    // The cell the vertex belongs to
+    attribute float inTexCoord2;
+    varying float cellId;
+#endif
+
+#ifdef INSTANCED_4D
+    // Per-instance 4D orientation
+    attribute mat4 inInstanceData;
+    // Per-instance colour
+    attribute vec4 inTexCoord6;
+    // Per-instance translation in XYZ and scale in W
+    attribute vec4 inTexCoord7;
+    // Per-instance offset along the W axis
+    attribute float inTexCoord8;
+#endif
+
+varying vec4 vertColor;
+
+void main(){
+    #ifdef HAS_VERTEXCOLOR
+        vertColor = inColor;
+    #else
+        vertColor = vec4(1.0);
+    #endif
+
+    #ifdef HAS_CELL_PALETTE
+        cellId = inTexCoord2;
+    #endif
+
+    #ifdef INSTANCED_4D
+        vec4 rotated = inInstanceData * inPosition * inTexCoord7.w;
+        rotated.w += inTexCoord8;
+        vertColor *= inTexCoord6;
+    #else
+        vec4 rotated = m_Orientation4D * inPosition;
+    #endif
+
+    vec3 projected = rotated.xyz;
+
+    #ifdef STEREOGRAPHIC
+        projected *= m_LightOnW / (m_LightOnW - rotated.w);
+    #endif
+
+    #ifdef INSTANCED_4D
+        projected += inTexCoord7.xyz;
+    #endif
+
+    gl_Position = g_WorldViewProjectionMatrix * vec4(projected, 1.0);
+}
@@ -0,0 +1,45 @@
+package mygame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+//Generation and per-frame rotation of the larger regular polytopes
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PolytopeBenchmark {
+
+    @Param({"24cell", "120cell", "600cell"})
+    public String polytope;
+
+    private PolytopeMesh m_mesh;
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        m_mesh = new PolytopeMesh(Generate());
+    }
+
+    private Polytope Generate() {
+        switch (polytope) {
+            case "24cell": return Polytope.TwentyFourCell();
+            case "120cell": return Polytope.OneHundredTwentyCell();
+            default: return Polytope.SixHundredCell();
+        }
+    }
+
+    @Benchmark
+    public Polytope Generation() {
+        return Generate();
+    }
+
+    @Benchmark
+    public void Rotate() {
+        m_mesh.Rotate(0.5f, Tesseract.RotationalPlane.XYZW);
+    }
+}
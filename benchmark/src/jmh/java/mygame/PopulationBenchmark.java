@@ -0,0 +1,54 @@
+package mygame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+//Compares stepping a population of tesseracts one after the other with the parallel TesseractBatch
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PopulationBenchmark {
+
+    @Param({"100", "1000"})
+    public int count;
+
+    private Tesseract[] m_tesseracts;
+    private TesseractBatch m_batch;
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        m_tesseracts = new Tesseract[count];
+        m_batch = new TesseractBatch(count);
+        for (int i = 0; i < count; i++) {
+            m_tesseracts[i] = new Tesseract();
+            Tesseract batched = new Tesseract();
+            m_batch.Add(batched);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown() {
+        m_batch.Shutdown();
+    }
+
+    @Benchmark
+    public void RotateSequential() {
+        for (int i = 0; i < count; i++) {
+            m_tesseracts[i].Rotate(0.5f, Tesseract.RotationalPlane.XYZW);
+        }
+    }
+
+    @Benchmark
+    public void RotateBatch() {
+        m_batch.Rotate(0.5f, Tesseract.RotationalPlane.XYZW);
+        m_batch.Submit();
+        m_batch.Complete();
+    }
+}
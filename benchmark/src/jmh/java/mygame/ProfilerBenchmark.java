@@ -0,0 +1,40 @@
+package mygame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+//The overhead of the StageProfiler on the hot path, compare the scores with and without profiling
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProfilerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean profiled;
+
+    private Tesseract m_tesseract;
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        m_tesseract = new Tesseract();
+        StageProfiler.SetEnabled(profiled);
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown() {
+        StageProfiler.SetEnabled(false);
+        StageProfiler.Reset();
+    }
+
+    @Benchmark
+    public void Rotate() {
+        m_tesseract.Rotate(0.5f, Tesseract.RotationalPlane.XYZW);
+    }
+}
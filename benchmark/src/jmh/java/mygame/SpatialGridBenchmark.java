@@ -0,0 +1,109 @@
+package mygame;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+//Proximity queries on a population of 4D hyperspheres with the SpatialGrid4D, against a linear scan for the nearest one
+//The population keeps the same density at every size, about one entry per cell
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpatialGridBenchmark {
+
+    private static final int QUERY_COUNT = 1024;
+    private static final float CELL_SIZE = 2.f;
+    private static final float MAX_RADIUS = 0.5f;
+
+    @Param({"10000", "100000"})
+    public int count;
+
+    private SpatialGrid4D m_grid;
+    private int[] m_ids;
+    private float[] m_centers; //XYZW per entry
+    private float[] m_radii;
+    private float[] m_steps; //XYZW per entry, how far each entry moves per update
+    private float[] m_queries; //XYZW per query point
+    private int[] m_nearest = new int[QUERY_COUNT];
+    private int[] m_offsets = new int[QUERY_COUNT + 1];
+    private SpatialGrid4D.Results m_results = new SpatialGrid4D.Results();
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        Random random = new Random(42);
+        float extent = CELL_SIZE * (float) Math.pow(count, 0.25);
+
+        m_grid = new SpatialGrid4D(CELL_SIZE, count);
+        m_ids = new int[count];
+        m_centers = new float[count * 4];
+        m_radii = new float[count];
+        m_steps = new float[count * 4];
+        for (int i = 0; i < count; i++) {
+            for (int d = 0; d < 4; d++) {
+                m_centers[i * 4 + d] = random.nextFloat() * extent;
+                m_steps[i * 4 + d] = (random.nextFloat() - 0.5f) * 0.02f * CELL_SIZE;
+            }
+            m_radii[i] = MAX_RADIUS * (0.5f + 0.5f * random.nextFloat());
+            m_ids[i] = m_grid.Add(m_centers[i * 4], m_centers[i * 4 + 1], m_centers[i * 4 + 2], m_centers[i * 4 + 3], m_radii[i]);
+        }
+
+        m_queries = new float[QUERY_COUNT * 4];
+        for (int i = 0; i < m_queries.length; i++) {
+            m_queries[i] = random.nextFloat() * extent;
+        }
+    }
+
+    @Benchmark
+    public int[] Nearest() {
+        m_grid.QueryNearest(m_queries, QUERY_COUNT, m_nearest);
+        return m_nearest;
+    }
+
+    @Benchmark
+    public int[] NearestLinearScan() {
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            float x = m_queries[q * 4], y = m_queries[q * 4 + 1], z = m_queries[q * 4 + 2], w = m_queries[q * 4 + 3];
+            int best = -1;
+            float bestDistance = Float.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                float dx = m_centers[i * 4] - x, dy = m_centers[i * 4 + 1] - y;
+                float dz = m_centers[i * 4 + 2] - z, dw = m_centers[i * 4 + 3] - w;
+                float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz + dw * dw) - m_radii[i];
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+            m_nearest[q] = best;
+        }
+        return m_nearest;
+    }
+
+    @Benchmark
+    public SpatialGrid4D.Results QueryRadius() {
+        m_grid.QueryRadius(m_queries, QUERY_COUNT, CELL_SIZE, m_results, m_offsets);
+        return m_results;
+    }
+
+    @Benchmark
+    public SpatialGrid4D.Results QueryOverlaps() {
+        m_results.Clear();
+        m_grid.QueryOverlaps(m_results);
+        return m_results;
+    }
+
+    //Every entry drifts by about 1% of a cell, most of them stay in their cell
+    @Benchmark
+    public void UpdateMoving() {
+        for (int i = 0; i < m_centers.length; i++) {
+            m_centers[i] += m_steps[i];
+        }
+        m_grid.Update(m_ids, m_centers, count);
+    }
+}
@@ -0,0 +1,47 @@
+package mygame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.jme3.math.Vector4f;
+
+//Throughput of the Tesseract hot paths, run with the gc profiler to also get the bytes allocated per operation
+//The rotations are measured for every plane by TesseractRotateBenchmark
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TesseractBenchmark {
+
+    private Vector4f m_boxSize = new Vector4f(1.f, 1.f, 1.f, 1.f);
+    private Tesseract m_tesseract;
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        m_tesseract = new Tesseract(m_boxSize);
+    }
+
+    @Benchmark
+    public Tesseract Construct() {
+        return new Tesseract(m_boxSize);
+    }
+
+    @Benchmark
+    public Tesseract ConstructOnGpu() {
+        return new Tesseract(m_boxSize, true);
+    }
+
+    @Benchmark
+    public void ToggleProjection() {
+        m_tesseract.ToggleProjection();
+    }
+
+    @Benchmark
+    public void Project() {
+        m_tesseract.Project();
+    }
+}
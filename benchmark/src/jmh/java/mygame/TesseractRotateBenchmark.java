@@ -0,0 +1,42 @@
+package mygame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.jme3.math.Vector4f;
+
+//Throughput of a Tesseract rotation around each plane, the single plane rotations and the double rotations differ
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TesseractRotateBenchmark {
+
+    @Param({"XY", "XZ", "YZ", "XW", "YW", "ZW", "XYZW", "XZYW", "YZXW"})
+    public Tesseract.RotationalPlane plane;
+
+    private Vector4f m_boxSize = new Vector4f(1.f, 1.f, 1.f, 1.f);
+    private Tesseract m_tesseract;
+    private Tesseract m_gpuTesseract;
+
+    @Setup(Level.Trial)
+    public void Setup() {
+        m_tesseract = new Tesseract(m_boxSize);
+        m_gpuTesseract = new Tesseract(m_boxSize, true);
+    }
+
+    @Benchmark
+    public void Rotate() {
+        m_tesseract.Rotate(0.5f, plane);
+    }
+
+    @Benchmark
+    public void RotateOnGpu() {
+        m_gpuTesseract.Rotate(0.5f, plane);
+    }
+}
@@ -0,0 +1,72 @@
+package mygame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/*
+    Emits a Flight Recorder event for every frame measured by Profiler4D, with the time of each 4D stage.
+    Loaded by Profiler4D when it is on the classpath, never referenced directly so the game still runs on JVMs
+    without Flight Recorder. Record with -XX:StartFlightRecording or from JDK Mission Control.
+ */
+public class JfrFrameListener implements Profiler4D.Listener {
+
+    @Name("mygame.Frame4D")
+    @Label("4D Frame")
+    @Category("jTesseract")
+    @Description("One frame with the estimated time of the 4D stages")
+    static class Frame4DEvent extends Event {
+
+        @Label("Rotate")
+        @Timespan(Timespan.NANOSECONDS)
+        long rotate;
+
+        @Label("Project")
+        @Timespan(Timespan.NANOSECONDS)
+        long project;
+
+        @Label("Upload")
+        @Timespan(Timespan.NANOSECONDS)
+        long upload;
+
+        @Label("Update Bound")
+        @Timespan(Timespan.NANOSECONDS)
+        long updateBound;
+
+        @Label("Cull")
+        @Timespan(Timespan.NANOSECONDS)
+        long cull;
+
+        @Label("Slice")
+        @Timespan(Timespan.NANOSECONDS)
+        long slice;
+    }
+
+    private Frame4DEvent m_event;
+
+    @Override
+    public void FrameStarted() {
+        m_event = new Frame4DEvent();
+        m_event.begin();
+    }
+
+    @Override
+    public void FrameEnded(long i_frameNanos, long[] i_stageNanos) {
+        if (m_event == null) return;
+
+        m_event.end();
+        if (m_event.shouldCommit()) {
+            m_event.rotate = i_stageNanos[StageProfiler.Stage.Rotate.ordinal()];
+            m_event.project = i_stageNanos[StageProfiler.Stage.Project.ordinal()];
+            m_event.upload = i_stageNanos[StageProfiler.Stage.Upload.ordinal()];
+            m_event.updateBound = i_stageNanos[StageProfiler.Stage.UpdateBound.ordinal()];
+            m_event.cull = i_stageNanos[StageProfiler.Stage.Cull.ordinal()];
+            m_event.slice = i_stageNanos[StageProfiler.Stage.Slice.ordinal()];
+            m_event.commit();
+        }
+        m_event = null;
+    }
+}
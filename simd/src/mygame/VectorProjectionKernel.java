@@ -0,0 +1,56 @@
+package mygame;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+    ProjectionKernel on the Java Vector API, processing as many points per instruction as the CPU has float lanes.
+    Loaded by ProjectionKernel.Get() when jdk.incubator.vector is available, never referenced directly so the game
+    still runs where it is not.
+ */
+public class VectorProjectionKernel extends ProjectionKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String GetName() {
+        return "vector" + SPECIES.length();
+    }
+
+    @Override
+    public void RotateProject(float[] i_matrix, int i_matrixOffset, float i_lightOnW,
+            float[] i_x, float[] i_y, float[] i_z, float[] i_w, int i_offset, int i_count,
+            float[] o_x, float[] o_y, float[] o_z, int o_offset) {
+        float[] m = i_matrix;
+        int o = i_matrixOffset;
+        boolean stereographic = i_lightOnW != 0.f;
+
+        int vectorCount = SPECIES.loopBound(i_count);
+        for (int i = 0; i < vectorCount; i += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, i_x, i_offset + i);
+            FloatVector y = FloatVector.fromArray(SPECIES, i_y, i_offset + i);
+            FloatVector z = FloatVector.fromArray(SPECIES, i_z, i_offset + i);
+            FloatVector w = FloatVector.fromArray(SPECIES, i_w, i_offset + i);
+
+            FloatVector rx = x.mul(m[o]).add(y.mul(m[o + 1])).add(z.mul(m[o + 2])).add(w.mul(m[o + 3]));
+            FloatVector ry = x.mul(m[o + 4]).add(y.mul(m[o + 5])).add(z.mul(m[o + 6])).add(w.mul(m[o + 7]));
+            FloatVector rz = x.mul(m[o + 8]).add(y.mul(m[o + 9])).add(z.mul(m[o + 10])).add(w.mul(m[o + 11]));
+
+            if (stereographic) {
+                FloatVector rw = x.mul(m[o + 12]).add(y.mul(m[o + 13])).add(z.mul(m[o + 14])).add(w.mul(m[o + 15]));
+                FloatVector scale = FloatVector.broadcast(SPECIES, i_lightOnW).div(rw.neg().add(i_lightOnW));
+                rx = rx.mul(scale);
+                ry = ry.mul(scale);
+                rz = rz.mul(scale);
+            }
+
+            rx.intoArray(o_x, o_offset + i);
+            ry.intoArray(o_y, o_offset + i);
+            rz.intoArray(o_z, o_offset + i);
+        }
+
+        RotateProjectScalar(i_matrix, i_matrixOffset, i_lightOnW,
+                i_x, i_y, i_z, i_w, i_offset + vectorCount, i_count - vectorCount,
+                o_x, o_y, o_z, o_offset + vectorCount);
+    }
+}
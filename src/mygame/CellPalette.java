@@ -0,0 +1,127 @@
+package mygame;
+
+import java.nio.ByteBuffer;
+
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.Texture2D;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.util.BufferUtils;
+
+/*
+    The colours of the cells of a mesh as a texture with one RGBA texel per cell.
+    The meshes carry the cell of every vertex in their TexCoord2 attribute, the CellPalette and Tesseract4D materials
+    look the colour of that cell up in the texture. Recolouring a cell writes 4 bytes and uploads a texture of one
+    texel per cell, 32 bytes for the tesseract, instead of the colour of every vertex.
+
+    Every cell has a base colour. Highlight() replaces it until ClearHighlight() puts it back, for hover and selection.
+ */
+public class CellPalette {
+
+    private int m_cellCount;
+    private float[] m_baseColors; //RGBA per cell
+    private ByteBuffer m_texels;
+    private Image m_image;
+    private Texture2D m_texture;
+    private int m_highlightedCell = -1;
+
+    public CellPalette(float[] i_baseColors) {
+        m_cellCount = i_baseColors.length / 4;
+        m_baseColors = i_baseColors.clone();
+
+        m_texels = BufferUtils.createByteBuffer(m_cellCount * 4);
+        for (int c = 0; c < m_cellCount; c++) {
+            WriteTexel(c, m_baseColors[c * 4], m_baseColors[c * 4 + 1], m_baseColors[c * 4 + 2], m_baseColors[c * 4 + 3]);
+        }
+        m_image = new Image(Image.Format.RGBA8, m_cellCount, 1, m_texels, ColorSpace.Linear);
+
+        //Every texel is a different cell, filtering would blend the neighbouring ones
+        m_texture = new Texture2D(m_image);
+        m_texture.setMinFilter(Texture.MinFilter.NearestNoMipMaps);
+        m_texture.setMagFilter(Texture.MagFilter.Nearest);
+        m_texture.setWrap(Texture.WrapMode.EdgeClamp);
+    }
+
+    public CellPalette(Tesseract i_tesseract) {
+        this(i_tesseract.GetCellColors());
+    }
+
+    //Cells spread around the colour wheel like in a PolytopeMesh
+    public CellPalette(Polytope i_polytope) {
+        this(WheelColors(i_polytope.GetCellCount()));
+    }
+
+    private static float[] WheelColors(int i_cellCount) {
+        float[] colors = new float[i_cellCount * 4];
+        ColorRGBA color = new ColorRGBA();
+        for (int c = 0; c < i_cellCount; c++) {
+            PolytopeMesh.CellColor(c, i_cellCount, color);
+            colors[c * 4] = color.r;
+            colors[c * 4 + 1] = color.g;
+            colors[c * 4 + 2] = color.b;
+            colors[c * 4 + 3] = color.a;
+        }
+        return colors;
+    }
+
+    //Points the CellPalette or Tesseract4D material at this palette
+    public void Apply(Material o_material) {
+        o_material.setTexture("CellPalette", m_texture);
+        o_material.setFloat("CellCount", m_cellCount);
+    }
+
+    public int GetCellCount() {
+        return m_cellCount;
+    }
+
+    public void SetBaseColor(int i_cell, ColorRGBA i_color) {
+        m_baseColors[i_cell * 4] = i_color.r;
+        m_baseColors[i_cell * 4 + 1] = i_color.g;
+        m_baseColors[i_cell * 4 + 2] = i_color.b;
+        m_baseColors[i_cell * 4 + 3] = i_color.a;
+        if (i_cell != m_highlightedCell) {
+            SetColor(i_cell, i_color);
+        }
+    }
+
+    //Shows the cell in another colour than its base colour, a single cell is highlighted at a time
+    public void Highlight(int i_cell, ColorRGBA i_color) {
+        if (i_cell != m_highlightedCell) {
+            ClearHighlight();
+        }
+        m_highlightedCell = i_cell;
+        SetColor(i_cell, i_color);
+    }
+
+    public void ClearHighlight() {
+        if (m_highlightedCell < 0) return;
+
+        int cell = m_highlightedCell;
+        m_highlightedCell = -1;
+        WriteTexel(cell, m_baseColors[cell * 4], m_baseColors[cell * 4 + 1], m_baseColors[cell * 4 + 2], m_baseColors[cell * 4 + 3]);
+        m_image.setUpdateNeeded();
+    }
+
+    public int GetHighlightedCell() {
+        return m_highlightedCell;
+    }
+
+    //The colour the cell is drawn with right now, which can differ from its base colour for effects like fading
+    public void SetColor(int i_cell, ColorRGBA i_color) {
+        WriteTexel(i_cell, i_color.r, i_color.g, i_color.b, i_color.a);
+        m_image.setUpdateNeeded();
+    }
+
+    private void WriteTexel(int i_cell, float i_r, float i_g, float i_b, float i_a) {
+        m_texels.put(i_cell * 4, ToByte(i_r));
+        m_texels.put(i_cell * 4 + 1, ToByte(i_g));
+        m_texels.put(i_cell * 4 + 2, ToByte(i_b));
+        m_texels.put(i_cell * 4 + 3, ToByte(i_a));
+    }
+
+    private static byte ToByte(float i_value) {
+        return (byte) Math.round(Math.max(0.f, Math.min(1.f, i_value)) * 255.f);
+    }
+}
@@ -0,0 +1,8 @@
+package mygame;
+
+//Something whose visible state can change from one frame to the next
+//The count increases with every change, comparing it with the count of the previous frame tells whether it changed
+public interface ChangeTracked {
+
+    int GetChangeCount();
+}
@@ -0,0 +1,388 @@
+package mygame;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.math.ColorRGBA;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.VertexBuffer.Usage;
+import com.jme3.util.BufferUtils;
+
+/*
+    The 3D solid a rotated polytope leaves in the hyperplane w = c, the way a 3D object crossing a plane leaves a
+    2D slice. Every cell that crosses the hyperplane leaves a convex polygon in it, in the colour of the cell.
+
+    Each slice rotates the vertices and tests on which side of the hyperplane each one lies. An edge whose ends lie
+    on different sides crosses the hyperplane at the point interpolated from its ends, and the crossing edges of a
+    cell are chained into its polygon through the faces they share. The polygons only change shape while no vertex
+    changes side, so the chaining, the indices and the colours are only rebuilt when the sides change. Otherwise
+    only the crossing points are interpolated again and streamed.
+
+    The buffers are allocated once for the largest possible slice. Unused index slots hold degenerate triangles, so
+    the buffer sizes the renderer sees never change.
+ */
+public class CrossSection4D extends Mesh implements ChangeTracked {
+
+    private int m_vertexCount;
+    private int m_edgeCount;
+    private int m_cellCount;
+
+    private float[] m_rest4D; //Packed XYZW per vertex
+    private float[] m_vertices4D;
+    private boolean[] b_isAbove; //The side of the hyperplane each vertex was on during the last slice
+
+    private int[] m_edgeVertices; //The two vertices of each edge
+    private float[] m_edgePoints; //XYZ of the point where each crossing edge meets the hyperplane
+
+    //The edges of face f in order around it, edge i joins vertex i to vertex i + 1, laid out like the faces
+    private int[] m_faceOffsets;
+    private int[] m_faceEdges;
+    private int[] m_cellOffsets;
+    private int[] m_cellFaces;
+    private float[] m_cellColors; //RGBA per cell
+
+    //The polygon of a cell goes through at most one crossing edge per face
+    private int[] m_segmentStart;
+    private int[] m_segmentEnd;
+    private boolean[] b_isSegmentUsed;
+
+    private int m_renderVertexCount; //Render vertices of the current slice
+    private int[] m_renderEdges; //The crossing edge each render vertex sits on
+    private float[] m_renderPositions;
+    private int[] m_renderIndices;
+    private float[] m_renderColors;
+
+    private FloatBuffer m_positions;
+    private FloatBuffer m_colors;
+    private IntBuffer m_indices;
+    private VertexBuffer m_positionBuffer = new VertexBuffer(Type.Position);
+    private VertexBuffer m_colorBuffer = new VertexBuffer(Type.Color);
+    private VertexBuffer m_indexBuffer = new VertexBuffer(Type.Index);
+    private BoundingBox m_bound = new BoundingBox();
+
+    private Matrix4D m_orientation = new Matrix4D();
+    private float m_sliceW = 0.f;
+    private boolean b_isTopologyValid = false;
+    private int m_changeCount = 0;
+
+    public CrossSection4D(Tesseract i_tesseract) {
+        this(i_tesseract.GetPolytope(), i_tesseract.GetCellColors());
+    }
+
+    public CrossSection4D(Polytope i_polytope) {
+        this(i_polytope, null);
+    }
+
+    //Without colours the cells are spread around the colour wheel like in a PolytopeMesh
+    public CrossSection4D(Polytope i_polytope, float[] i_cellColors) {
+        m_vertexCount = i_polytope.GetVertexCount();
+        m_cellCount = i_polytope.GetCellCount();
+
+        m_rest4D = new float[m_vertexCount * 4];
+        i_polytope.WriteVertices4D(m_rest4D, 0);
+        m_vertices4D = new float[m_vertexCount * 4];
+        b_isAbove = new boolean[m_vertexCount];
+
+        InitEdges(i_polytope);
+
+        m_cellOffsets = new int[m_cellCount + 1];
+        int maxCellFaces = 0;
+        for (int c = 0; c < m_cellCount; c++) {
+            m_cellOffsets[c + 1] = m_cellOffsets[c] + i_polytope.GetCellFaceCount(c);
+            maxCellFaces = Math.max(maxCellFaces, i_polytope.GetCellFaceCount(c));
+        }
+        m_cellFaces = new int[m_cellOffsets[m_cellCount]];
+        for (int c = 0; c < m_cellCount; c++) {
+            for (int f = 0; f < i_polytope.GetCellFaceCount(c); f++) {
+                m_cellFaces[m_cellOffsets[c] + f] = i_polytope.GetCellFace(c, f);
+            }
+        }
+
+        m_cellColors = new float[m_cellCount * 4];
+        ColorRGBA color = new ColorRGBA();
+        for (int c = 0; c < m_cellCount; c++) {
+            if (i_cellColors != null) {
+                System.arraycopy(i_cellColors, c * 4, m_cellColors, c * 4, 4);
+            } else {
+                PolytopeMesh.CellColor(c, m_cellCount, color);
+                m_cellColors[c * 4] = color.r;
+                m_cellColors[c * 4 + 1] = color.g;
+                m_cellColors[c * 4 + 2] = color.b;
+                m_cellColors[c * 4 + 3] = color.a;
+            }
+        }
+
+        m_segmentStart = new int[maxCellFaces];
+        m_segmentEnd = new int[maxCellFaces];
+        b_isSegmentUsed = new boolean[maxCellFaces];
+
+        //A cell crossing the hyperplane leaves a polygon with at most one corner per face
+        int maxRenderVertices = m_cellFaces.length;
+        int maxIndices = 0;
+        for (int c = 0; c < m_cellCount; c++) {
+            maxIndices += Math.max(0, m_cellOffsets[c + 1] - m_cellOffsets[c] - 2) * 3;
+        }
+
+        m_renderEdges = new int[maxRenderVertices];
+        m_renderPositions = new float[maxRenderVertices * 3];
+        m_renderColors = new float[maxRenderVertices * 4];
+        m_renderIndices = new int[maxIndices];
+
+        m_positions = BufferUtils.createFloatBuffer(maxRenderVertices * 3);
+        m_positionBuffer.setupData(Usage.Stream, 3, Format.Float, m_positions);
+        this.setBuffer(m_positionBuffer);
+        m_colors = BufferUtils.createFloatBuffer(maxRenderVertices * 4);
+        m_colorBuffer.setupData(Usage.Dynamic, 4, Format.Float, m_colors);
+        this.setBuffer(m_colorBuffer);
+        m_indices = BufferUtils.createIntBuffer(maxIndices);
+        m_indexBuffer.setupData(Usage.Dynamic, 3, Format.UnsignedInt, m_indices);
+        this.setBuffer(m_indexBuffer);
+
+        Slice();
+    }
+
+    //Numbers the edges shared by the faces once, so every crossing point is interpolated once per slice
+    private void InitEdges(Polytope i_polytope) {
+        int faceCount = i_polytope.GetFaceCount();
+        m_faceOffsets = new int[faceCount + 1];
+        for (int f = 0; f < faceCount; f++) {
+            m_faceOffsets[f + 1] = m_faceOffsets[f] + i_polytope.GetFaceSize(f);
+        }
+        m_faceEdges = new int[m_faceOffsets[faceCount]];
+
+        Map<Long, Integer> edgeIds = new HashMap<Long, Integer>();
+        int[] edgeVertices = new int[m_faceEdges.length * 2];
+        for (int f = 0; f < faceCount; f++) {
+            int size = i_polytope.GetFaceSize(f);
+            for (int i = 0; i < size; i++) {
+                int a = i_polytope.GetFaceVertex(f, i);
+                int b = i_polytope.GetFaceVertex(f, (i + 1) % size);
+                long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+
+                Integer edge = edgeIds.get(key);
+                if (edge == null) {
+                    edge = m_edgeCount++;
+                    edgeIds.put(key, edge);
+                    edgeVertices[edge * 2] = a;
+                    edgeVertices[edge * 2 + 1] = b;
+                }
+                m_faceEdges[m_faceOffsets[f] + i] = edge;
+            }
+        }
+
+        m_edgeVertices = new int[m_edgeCount * 2];
+        System.arraycopy(edgeVertices, 0, m_edgeVertices, 0, m_edgeCount * 2);
+        m_edgePoints = new float[m_edgeCount * 3];
+    }
+
+    //Read only, change it with SetOrientation()
+    public Matrix4D GetOrientation() {
+        return m_orientation;
+    }
+
+    public void SetOrientation(Matrix4D i_orientation) {
+        m_orientation.Set(i_orientation);
+        Slice();
+    }
+
+    public float GetSliceW() {
+        return m_sliceW;
+    }
+
+    //Moves the hyperplane along the W axis of the space the polytope is rotated into
+    public void SetSliceW(float i_sliceW) {
+        if (i_sliceW == m_sliceW) return;
+
+        m_sliceW = i_sliceW;
+        Slice();
+    }
+
+    //Number of triangles drawn by the current slice, the rest of the index buffer is degenerate
+    public int GetSliceTriangleCount() {
+        int count = 0;
+        for (int i = 0; i < m_renderIndices.length; i += 3) {
+            if (m_renderIndices[i] != m_renderIndices[i + 1]) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int GetChangeCount() {
+        return m_changeCount;
+    }
+
+    private void Slice() {
+        long start = StageProfiler.Begin(StageProfiler.Stage.Slice);
+        m_orientation.Transform(m_rest4D, 0, m_vertices4D, 0, m_vertexCount);
+
+        //A vertex exactly on the hyperplane counts as above it, so an edge never crosses at both of its ends
+        boolean sidesChanged = !b_isTopologyValid;
+        for (int v = 0; v < m_vertexCount; v++) {
+            boolean isAbove = m_vertices4D[v * 4 + 3] >= m_sliceW;
+            if (isAbove != b_isAbove[v]) {
+                b_isAbove[v] = isAbove;
+                sidesChanged = true;
+            }
+        }
+
+        for (int e = 0; e < m_edgeCount; e++) {
+            int a = m_edgeVertices[e * 2];
+            int b = m_edgeVertices[e * 2 + 1];
+            if (b_isAbove[a] == b_isAbove[b]) continue;
+
+            float wa = m_vertices4D[a * 4 + 3];
+            float wb = m_vertices4D[b * 4 + 3];
+            float t = (m_sliceW - wa) / (wb - wa);
+            for (int d = 0; d < 3; d++) {
+                float pa = m_vertices4D[a * 4 + d];
+                m_edgePoints[e * 3 + d] = pa + (m_vertices4D[b * 4 + d] - pa) * t;
+            }
+        }
+
+        if (sidesChanged) {
+            BuildPolygons();
+            b_isTopologyValid = true;
+        }
+
+        for (int i = 0; i < m_renderVertexCount; i++) {
+            int e = m_renderEdges[i];
+            m_renderPositions[i * 3] = m_edgePoints[e * 3];
+            m_renderPositions[i * 3 + 1] = m_edgePoints[e * 3 + 1];
+            m_renderPositions[i * 3 + 2] = m_edgePoints[e * 3 + 2];
+        }
+        m_positions.clear();
+        m_positions.put(m_renderPositions);
+        m_positions.flip();
+        m_positionBuffer.updateData(m_positions);
+        m_changeCount++;
+
+        this.updateBound();
+        StageProfiler.End(StageProfiler.Stage.Slice, start);
+    }
+
+    //The stale positions past the current slice would widen a bound computed from the whole buffer
+    @Override
+    public void updateBound() {
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < m_renderVertexCount; i++) {
+            float x = m_renderPositions[i * 3];
+            float y = m_renderPositions[i * 3 + 1];
+            float z = m_renderPositions[i * 3 + 2];
+            minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+            minZ = Math.min(minZ, z); maxZ = Math.max(maxZ, z);
+        }
+
+        if (m_renderVertexCount == 0) {
+            m_bound.setCenter(0.f, 0.f, 0.f);
+            m_bound.setXExtent(0.f);
+            m_bound.setYExtent(0.f);
+            m_bound.setZExtent(0.f);
+        } else {
+            m_bound.setCenter((minX + maxX) * 0.5f, (minY + maxY) * 0.5f, (minZ + maxZ) * 0.5f);
+            m_bound.setXExtent((maxX - minX) * 0.5f);
+            m_bound.setYExtent((maxY - minY) * 0.5f);
+            m_bound.setZExtent((maxZ - minZ) * 0.5f);
+        }
+        this.setBound(m_bound);
+    }
+
+    //Chains the crossing edges of every cell into its polygon and rebuilds the indices and colours of the slice
+    private void BuildPolygons() {
+        m_renderVertexCount = 0;
+        int index = 0;
+
+        for (int c = 0; c < m_cellCount; c++) {
+            //A convex face meets the hyperplane along one segment, between the two edges of the face that cross it
+            int segments = 0;
+            for (int i = m_cellOffsets[c]; i < m_cellOffsets[c + 1]; i++) {
+                int face = m_cellFaces[i];
+                int first = -1;
+                int second = -1;
+                for (int j = m_faceOffsets[face]; j < m_faceOffsets[face + 1]; j++) {
+                    int e = m_faceEdges[j];
+                    if (b_isAbove[m_edgeVertices[e * 2]] == b_isAbove[m_edgeVertices[e * 2 + 1]]) continue;
+
+                    if (first < 0) {
+                        first = e;
+                    } else {
+                        second = e;
+                    }
+                }
+                if (second < 0) continue;
+
+                m_segmentStart[segments] = first;
+                m_segmentEnd[segments] = second;
+                b_isSegmentUsed[segments] = false;
+                segments++;
+            }
+            if (segments < 3) continue;
+
+            //Walks from segment to segment through the edges they share until the polygon closes
+            int polygonStart = m_renderVertexCount;
+            int startEdge = m_segmentStart[0];
+            int edge = m_segmentEnd[0];
+            b_isSegmentUsed[0] = true;
+            m_renderEdges[m_renderVertexCount++] = startEdge;
+            boolean isClosed = false;
+            for (int step = 1; step < segments; step++) {
+                if (edge == startEdge) {
+                    isClosed = true;
+                    break;
+                }
+                m_renderEdges[m_renderVertexCount++] = edge;
+
+                int next = -1;
+                for (int s = 1; s < segments && next < 0; s++) {
+                    if (b_isSegmentUsed[s]) continue;
+                    if (m_segmentStart[s] == edge) {
+                        next = m_segmentEnd[s];
+                    } else if (m_segmentEnd[s] == edge) {
+                        next = m_segmentStart[s];
+                    }
+                    if (next >= 0) b_isSegmentUsed[s] = true;
+                }
+                if (next < 0) break;
+                edge = next;
+            }
+            isClosed |= edge == startEdge;
+
+            int corners = m_renderVertexCount - polygonStart;
+            if (!isClosed || corners < 3) {
+                m_renderVertexCount = polygonStart;
+                continue;
+            }
+
+            for (int i = polygonStart; i < m_renderVertexCount; i++) {
+                System.arraycopy(m_cellColors, c * 4, m_renderColors, i * 4, 4);
+            }
+            for (int t = 1; t < corners - 1; t++) {
+                m_renderIndices[index++] = polygonStart;
+                m_renderIndices[index++] = polygonStart + t;
+                m_renderIndices[index++] = polygonStart + t + 1;
+            }
+        }
+
+        //The rest of the index buffer draws nothing
+        for (int i = index; i < m_renderIndices.length; i++) {
+            m_renderIndices[i] = 0;
+        }
+
+        m_indices.clear();
+        m_indices.put(m_renderIndices);
+        m_indices.flip();
+        m_indexBuffer.updateData(m_indices);
+
+        m_colors.clear();
+        m_colors.put(m_renderColors);
+        m_colors.flip();
+        m_colorBuffer.updateData(m_colors);
+    }
+}
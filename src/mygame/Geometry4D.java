@@ -0,0 +1,38 @@
+package mygame;
+
+import com.jme3.scene.Geometry;
+
+//A leaf of the 4D scene graph, a tesseract posed by its world transform and projected on the CPU
+public class Geometry4D extends Spatial4D {
+
+    private final Tesseract m_tesseract;
+    private final Geometry m_geometry;
+
+    public Geometry4D(String i_name, Tesseract i_tesseract) {
+        super(i_name);
+        if (i_tesseract.IsProjectedOnGpu()) {
+            throw new IllegalArgumentException("A tesseract projected on the GPU cannot be placed in a 4D scene");
+        }
+        m_tesseract = i_tesseract;
+        m_geometry = new Geometry(i_name, i_tesseract);
+    }
+
+    @Override
+    public Geometry GetSpatial() {
+        return m_geometry;
+    }
+
+    public Tesseract GetTesseract() {
+        return m_tesseract;
+    }
+
+    @Override
+    public void ToggleProjection() {
+        m_tesseract.ToggleProjection();
+    }
+
+    @Override
+    protected void WorldTransformChanged() {
+        m_tesseract.SetTransform4D(GetWorldTransform());
+    }
+}
@@ -0,0 +1,317 @@
+package mygame;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.jme3.material.Material;
+import com.jme3.material.MaterialDef;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.system.NullRenderer;
+
+/*
+    Drives tesseracts for a fixed number of frames without a display, for build agents and performance tracking.
+
+    A frame does what the CPU does in a frame of Main: the scripted rotations and projection toggles, the scene graph
+    update, then culling and queueing the scene through a RenderManager on a NullRenderer. The frames are stepped
+    back to back with a fixed time per frame, so two runs do the same work.
+
+    Configured with system properties:
+        headless.frames     measured frames (3000)
+        headless.warmup     frames run before measuring, to let the JIT compile the hot paths (600)
+        headless.instances  number of tesseracts (100)
+        headless.batch      rotate and project the tesseracts with a TesseractBatch (false)
+        headless.script     comma separated steps, PLANE*FRAMES rotates on PLANE for FRAMES frames and toggle
+                            toggles the projection, repeated until the frames are done
+        headless.report     path of the JSON report (headless-report.json)
+ */
+public class HeadlessBenchmark {
+
+    private static final String DEFAULT_SCRIPT =
+            "XY*60,XZ*60,YZ*60,XW*60,toggle,YW*60,ZW*60,toggle,XYZW*60,XZYW*60,YZXW*60,None*30";
+    private static final float TPF = 1.f / 60.f;
+
+    private final int m_frames;
+    private final int m_warmupFrames;
+    private final int m_instanceCount;
+    private final boolean b_isBatched;
+    private final String m_script;
+
+    private final List<Tesseract.RotationalPlane> m_stepPlanes = new ArrayList<Tesseract.RotationalPlane>();
+    private final List<Integer> m_stepFrames = new ArrayList<Integer>(); //0 for a projection toggle
+
+    private final Node m_rootNode = new Node("Root Node");
+    private final List<Tesseract> m_tesseracts = new ArrayList<Tesseract>();
+    private TesseractBatch m_batch;
+    private RenderManager m_renderManager;
+    private ViewPort m_viewPort;
+
+    private int m_step = 0;
+    private int m_framesLeftInStep = 0;
+    private Tesseract.RotationalPlane m_plane = Tesseract.RotationalPlane.None;
+
+    public HeadlessBenchmark(int i_frames, int i_warmupFrames, int i_instanceCount, boolean i_isBatched, String i_script) {
+        m_frames = i_frames;
+        m_warmupFrames = i_warmupFrames;
+        m_instanceCount = i_instanceCount;
+        b_isBatched = i_isBatched;
+        m_script = i_script;
+
+        ParseScript(i_script);
+        InitScene();
+    }
+
+    public static void main(String[] args) throws IOException {
+        HeadlessBenchmark benchmark = new HeadlessBenchmark(
+                Integer.getInteger("headless.frames", 3000),
+                Integer.getInteger("headless.warmup", 600),
+                Integer.getInteger("headless.instances", 100),
+                Boolean.getBoolean("headless.batch"),
+                System.getProperty("headless.script", DEFAULT_SCRIPT));
+
+        String report = benchmark.Run();
+        String path = System.getProperty("headless.report", "headless-report.json");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(path), "UTF-8");
+        try {
+            writer.write(report);
+        } finally {
+            writer.close();
+        }
+        System.out.println(report);
+    }
+
+    private void ParseScript(String i_script) {
+        for (String step : i_script.split(",")) {
+            step = step.trim();
+            if (step.equalsIgnoreCase("toggle")) {
+                m_stepPlanes.add(Tesseract.RotationalPlane.None);
+                m_stepFrames.add(0);
+                continue;
+            }
+
+            int separator = step.indexOf('*');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected PLANE*FRAMES or toggle in the script, got " + step);
+            }
+            int frames = Integer.parseInt(step.substring(separator + 1).trim());
+            if (frames <= 0) {
+                throw new IllegalArgumentException("A script step needs at least one frame, got " + step);
+            }
+            m_stepPlanes.add(Tesseract.RotationalPlane.valueOf(step.substring(0, separator).trim()));
+            m_stepFrames.add(frames);
+        }
+        if (m_stepFrames.isEmpty()) {
+            throw new IllegalArgumentException("The script is empty");
+        }
+    }
+
+    private void InitScene() {
+        //Nothing is drawn, the material only has to exist for the geometries to be queued
+        Material material = new Material(new MaterialDef(null, "Headless"));
+
+        if (b_isBatched) {
+            m_batch = new TesseractBatch(m_instanceCount);
+        }
+
+        //Lay the population out on a grid in front of the camera, the same way Main does
+        int side = (int) FastMath.ceil(FastMath.sqrt(m_instanceCount));
+        for (int i = 0; i < m_instanceCount; i++) {
+            Tesseract tesseract = new Tesseract();
+            tesseract.SetOrientation(new Matrix4D().RotatePlane(Matrix4D.X, Matrix4D.W, i * 11.f));
+            if (m_batch != null) {
+                m_batch.Add(tesseract);
+            }
+            m_tesseracts.add(tesseract);
+
+            Geometry geometry = new Geometry("Tesseract " + i, tesseract);
+            geometry.setMaterial(material);
+            geometry.setLocalTranslation((i % side - side * 0.5f) * 4.f, (i / side - side * 0.5f) * 4.f, 0.f);
+            m_rootNode.attachChild(geometry);
+        }
+
+        Camera cam = new Camera(1280, 720);
+        cam.setFrustumPerspective(45.f, 1280.f / 720.f, 1.f, 1000.f);
+        cam.setLocation(new Vector3f(0.f, 0.f, side * 4.f));
+        cam.lookAt(Vector3f.ZERO, Vector3f.UNIT_Y);
+
+        m_renderManager = new RenderManager(new NullRenderer());
+        m_viewPort = m_renderManager.createMainView("Default", cam);
+        m_viewPort.attachScene(m_rootNode);
+    }
+
+    private void AdvanceScript() {
+        while (m_framesLeftInStep == 0) {
+            int frames = m_stepFrames.get(m_step);
+            if (frames == 0) {
+                for (int i = 0; i < m_tesseracts.size(); i++) {
+                    m_tesseracts.get(i).ToggleProjection();
+                }
+            } else {
+                m_plane = m_stepPlanes.get(m_step);
+                m_framesLeftInStep = frames;
+            }
+            m_step = (m_step + 1) % m_stepFrames.size();
+        }
+        m_framesLeftInStep--;
+    }
+
+    private void Frame() {
+        AdvanceScript();
+
+        if (m_batch != null) {
+            m_batch.Complete();
+            m_batch.Rotate(30 * TPF, m_plane);
+            m_batch.Submit();
+        } else {
+            for (int i = 0; i < m_tesseracts.size(); i++) {
+                m_tesseracts.get(i).Rotate(30 * TPF, m_plane);
+            }
+        }
+
+        m_rootNode.updateLogicalState(TPF);
+        m_rootNode.updateGeometricState();
+        m_renderManager.renderScene(m_rootNode, m_viewPort);
+        m_viewPort.getQueue().clear();
+    }
+
+    //Runs the warm up and the measured frames and returns the JSON report
+    public String Run() {
+        for (int f = 0; f < m_warmupFrames; f++) {
+            Frame();
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        long[] gcCounts = new long[collectors.size()];
+        long[] gcMillis = new long[collectors.size()];
+        for (int i = 0; i < collectors.size(); i++) {
+            gcCounts[i] = collectors.get(i).getCollectionCount();
+            gcMillis[i] = collectors.get(i).getCollectionTime();
+        }
+
+        LatencyHistogram frames = new LatencyHistogram();
+        StageProfiler.Reset();
+        StageProfiler.SetEnabled(true);
+        long allocatedStart = AllocatedBytes(threads);
+        long start = System.nanoTime();
+        for (int f = 0; f < m_frames; f++) {
+            long frameStart = System.nanoTime();
+            Frame();
+            frames.Record(System.nanoTime() - frameStart);
+        }
+        if (m_batch != null) {
+            m_batch.Shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedEnd = AllocatedBytes(threads);
+        StageProfiler.SetEnabled(false);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        Field(json, "frames", m_frames).append(",\n");
+        Field(json, "warmupFrames", m_warmupFrames).append(",\n");
+        Field(json, "instances", m_instanceCount).append(",\n");
+        Field(json, "batched", b_isBatched).append(",\n");
+        Field(json, "script", m_script).append(",\n");
+        //Only the batch projects through the ProjectionKernel, a Tesseract on its own runs its own loop
+        Field(json, "kernel", b_isBatched ? ProjectionKernel.Get().GetName() : "tesseract").append(",\n");
+        Field(json, "javaVersion", System.getProperty("java.version")).append(",\n");
+        Field(json, "wallSeconds", elapsed / 1e9).append(",\n");
+        Field(json, "framesPerSecond", m_frames * 1e9 / elapsed).append(",\n");
+
+        json.append("  \"frameNanos\": ");
+        Histogram(json, frames).append(",\n");
+
+        json.append("  \"stages\": {");
+        StageProfiler.Stage[] stages = StageProfiler.Stage.values();
+        for (int s = 0; s < stages.length; s++) {
+            json.append(s == 0 ? "\n" : ",\n").append("    \"").append(stages[s]).append("\": ");
+            json.append("{\"calls\": ").append(StageProfiler.GetCalls(stages[s]));
+            json.append(", \"estimatedNanos\": ").append((long) StageProfiler.GetEstimatedNanos(stages[s]));
+            json.append(", \"sampledNanos\": ");
+            Histogram(json, StageProfiler.GetSamples(stages[s])).append("}");
+        }
+        json.append("\n  },\n");
+
+        //-1 when the JVM cannot count the allocations of a thread
+        long allocated = allocatedStart < 0 ? -1 : allocatedEnd - allocatedStart;
+        Field(json, "allocatedBytes", allocated).append(",\n");
+        Field(json, "allocatedBytesPerFrame", allocated < 0 ? -1 : allocated / m_frames).append(",\n");
+
+        long gcCount = 0;
+        long gcTime = 0;
+        json.append("  \"gcCollectors\": [");
+        for (int i = 0; i < collectors.size(); i++) {
+            long count = collectors.get(i).getCollectionCount() - gcCounts[i];
+            long millis = collectors.get(i).getCollectionTime() - gcMillis[i];
+            gcCount += count;
+            gcTime += millis;
+            json.append(i == 0 ? "\n" : ",\n").append("    {\"name\": ").append(Quote(collectors.get(i).getName()));
+            json.append(", \"count\": ").append(count).append(", \"timeMillis\": ").append(millis).append("}");
+        }
+        json.append("\n  ],\n");
+        Field(json, "gcCount", gcCount).append(",\n");
+        Field(json, "gcTimeMillis", gcTime).append("\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    //Only counts the allocations of the calling thread, the batch workers are not included
+    private static long AllocatedBytes(ThreadMXBean i_threads) {
+        if (i_threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) i_threads;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static StringBuilder Histogram(StringBuilder o_json, LatencyHistogram i_histogram) {
+        return o_json.append(String.format(Locale.ROOT,
+                "{\"count\": %d, \"mean\": %.1f, \"p50\": %d, \"p90\": %d, \"p95\": %d, \"p99\": %d, \"p999\": %d, \"max\": %d}",
+                i_histogram.GetCount(), i_histogram.GetMeanNanos(),
+                i_histogram.GetPercentileNanos(50), i_histogram.GetPercentileNanos(90),
+                i_histogram.GetPercentileNanos(95), i_histogram.GetPercentileNanos(99),
+                i_histogram.GetPercentileNanos(99.9), i_histogram.GetMaxNanos()));
+    }
+
+    private static StringBuilder Field(StringBuilder o_json, String i_name, Object i_value) {
+        o_json.append("  ").append(Quote(i_name)).append(": ");
+        if (i_value instanceof String) {
+            return o_json.append(Quote((String) i_value));
+        }
+        if (i_value instanceof Double) {
+            return o_json.append(String.format(Locale.ROOT, "%.3f", (Double) i_value));
+        }
+        return o_json.append(i_value);
+    }
+
+    private static String Quote(String i_value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < i_value.length(); i++) {
+            char c = i_value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
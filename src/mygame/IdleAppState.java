@@ -0,0 +1,211 @@
+package mygame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import com.jme3.app.Application;
+import com.jme3.app.state.BaseAppState;
+import com.jme3.input.RawInputListener;
+import com.jme3.input.event.JoyAxisEvent;
+import com.jme3.input.event.JoyButtonEvent;
+import com.jme3.input.event.KeyInputEvent;
+import com.jme3.input.event.MouseButtonEvent;
+import com.jme3.input.event.MouseMotionEvent;
+import com.jme3.input.event.TouchEvent;
+
+/*
+    Render-on-demand for scenes that are mostly still. The state watches input and the ChangeTracked objects of the
+    scene, once none of them changed for IDLE_DELAY seconds the application is idle until something changes again.
+
+    While idle, the render thread sleeps between frames so the loop only runs at the idle frame rate. A Listener can
+    suspend rendering completely instead, e.g. by switching an Android GLSurfaceView to RENDERMODE_WHEN_DIRTY, it is
+    then responsible for calling Wake() when input arrives and for rendering one more frame when asked to.
+    Wake() may be called from any thread, e.g. when a task is enqueued or a model finished loading. It only requests
+    the wake-up, the idle state itself is only ever changed on the render thread, which also calls IdleChanged().
+ */
+public class IdleAppState extends BaseAppState implements RawInputListener {
+
+    //Seconds without a change before the application goes idle
+    private static final float IDLE_DELAY = 0.5f;
+
+    public interface Listener {
+        //Called on the render thread when the application goes idle or wakes up
+        void IdleChanged(boolean i_isIdle);
+
+        //Called on the thread calling Wake() while the application is idle. A listener that suspended rendering lets
+        //the render thread run one more frame, e.g. with GLSurfaceView.requestRender(), and that frame wakes it up
+        void WakeRequested();
+    }
+
+    private final float m_idleFrameRate;
+    private final List<ChangeTracked> m_watched = new ArrayList<ChangeTracked>();
+    private int[] m_changeCounts = new int[0];
+    private volatile Listener m_listener;
+
+    private float m_secondsWithoutChange = 0.f;
+    private boolean b_hadInput = false;
+    private volatile boolean b_isIdle = false;
+    private final AtomicBoolean m_wakeRequested = new AtomicBoolean(false);
+    private volatile Thread m_renderThread;
+    private long m_frameStart = 0;
+
+    public IdleAppState() {
+        this(10.f);
+    }
+
+    public IdleAppState(float i_idleFrameRate) {
+        m_idleFrameRate = i_idleFrameRate;
+    }
+
+    public void Watch(ChangeTracked i_watched) {
+        m_watched.add(i_watched);
+        m_changeCounts = new int[m_watched.size()];
+        for (int i = 0; i < m_watched.size(); i++) {
+            m_changeCounts[i] = m_watched.get(i).GetChangeCount();
+        }
+    }
+
+    public void SetListener(Listener i_listener) {
+        m_listener = i_listener;
+    }
+
+    public boolean IsIdle() {
+        return b_isIdle;
+    }
+
+    //Leaves the idle mode with the next frame, safe to call from any thread
+    public void Wake() {
+        m_wakeRequested.set(true);
+        if (!b_isIdle) return;
+
+        Listener listener = m_listener;
+        if (listener != null) {
+            listener.WakeRequested();
+        }
+        Thread renderThread = m_renderThread;
+        if (renderThread != null) {
+            LockSupport.unpark(renderThread);
+        }
+    }
+
+    @Override
+    protected void initialize(Application i_app) {
+    }
+
+    @Override
+    protected void cleanup(Application i_app) {
+    }
+
+    @Override
+    protected void onEnable() {
+        getApplication().getInputManager().addRawInputListener(this);
+    }
+
+    @Override
+    protected void onDisable() {
+        getApplication().getInputManager().removeRawInputListener(this);
+        m_wakeRequested.set(false);
+        LeaveIdle();
+    }
+
+    @Override
+    public void update(float i_tpf) {
+        m_frameStart = System.nanoTime();
+
+        //The request is consumed atomically, a Wake() racing with this frame is either seen now or by the next one
+        boolean changed = m_wakeRequested.getAndSet(false) || b_hadInput;
+        b_hadInput = false;
+        for (int i = 0; i < m_watched.size(); i++) {
+            int changeCount = m_watched.get(i).GetChangeCount();
+            if (changeCount != m_changeCounts[i]) {
+                m_changeCounts[i] = changeCount;
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            m_secondsWithoutChange = 0.f;
+            LeaveIdle();
+            return;
+        }
+
+        m_secondsWithoutChange += i_tpf;
+        if (b_isIdle || m_secondsWithoutChange < IDLE_DELAY) return;
+
+        //The idle state is published before looking for a request once more: a concurrent Wake() either sees the
+        //application idle and asks for another frame, or its request is seen here and the application stays awake
+        b_isIdle = true;
+        if (m_wakeRequested.get()) {
+            b_isIdle = false;
+            return;
+        }
+        Notify(true);
+    }
+
+    private void LeaveIdle() {
+        if (!b_isIdle) return;
+
+        b_isIdle = false;
+        Notify(false);
+    }
+
+    private void Notify(boolean i_isIdle) {
+        Listener listener = m_listener;
+        if (listener != null) {
+            listener.IdleChanged(i_isIdle);
+        }
+    }
+
+    //Throttles the loop once the frame is rendered, Wake() cuts the sleep short
+    @Override
+    public void postRender() {
+        if (!b_isIdle || m_frameStart == 0) return;
+
+        m_renderThread = Thread.currentThread();
+        long frameEnd = m_frameStart + (long) (1e9 / m_idleFrameRate);
+        long now;
+        while (b_isIdle && !m_wakeRequested.get() && (now = System.nanoTime()) < frameEnd) {
+            LockSupport.parkNanos(frameEnd - now);
+        }
+    }
+
+    @Override
+    public void beginInput() {
+    }
+
+    @Override
+    public void endInput() {
+    }
+
+    @Override
+    public void onJoyAxisEvent(JoyAxisEvent i_event) {
+        b_hadInput = true;
+    }
+
+    @Override
+    public void onJoyButtonEvent(JoyButtonEvent i_event) {
+        b_hadInput = true;
+    }
+
+    @Override
+    public void onMouseMotionEvent(MouseMotionEvent i_event) {
+        b_hadInput = true;
+    }
+
+    @Override
+    public void onMouseButtonEvent(MouseButtonEvent i_event) {
+        b_hadInput = true;
+    }
+
+    @Override
+    public void onKeyEvent(KeyInputEvent i_event) {
+        b_hadInput = true;
+    }
+
+    @Override
+    public void onTouchEvent(TouchEvent i_event) {
+        b_hadInput = true;
+    }
+}
@@ -0,0 +1,79 @@
+package mygame;
+
+//Counts durations in nanoseconds with 4 bins per power of two, so any percentile is within 25% of the real value
+//while recording stays a handful of instructions and never allocates
+public class LatencyHistogram {
+
+    private static final int BINS = 64 * 4;
+
+    private final long[] m_bins = new long[BINS];
+    private long m_count = 0;
+    private long m_total = 0;
+    private long m_max = 0;
+
+    public void Record(long i_nanos) {
+        m_bins[Bin(i_nanos)]++;
+        m_count++;
+        m_total += i_nanos;
+        if (i_nanos > m_max) {
+            m_max = i_nanos;
+        }
+    }
+
+    private static int Bin(long i_nanos) {
+        if (i_nanos < 4) {
+            return i_nanos < 0 ? 0 : (int) i_nanos;
+        }
+        int log2 = 63 - Long.numberOfLeadingZeros(i_nanos);
+        return log2 * 4 + (int) ((i_nanos >>> (log2 - 2)) & 3);
+    }
+
+    //The largest duration that falls into the bin
+    private static long BinUpperBound(int i_bin) {
+        if (i_bin < 8) {
+            return i_bin;
+        }
+        int log2 = i_bin / 4;
+        return ((4L + i_bin % 4 + 1) << (log2 - 2)) - 1;
+    }
+
+    public long GetCount() {
+        return m_count;
+    }
+
+    public long GetTotalNanos() {
+        return m_total;
+    }
+
+    public long GetMaxNanos() {
+        return m_max;
+    }
+
+    public double GetMeanNanos() {
+        return m_count == 0 ? 0.0 : (double) m_total / m_count;
+    }
+
+    //i_percentile between 0 and 100
+    public long GetPercentileNanos(double i_percentile) {
+        if (m_count == 0) return 0;
+
+        long rank = (long) Math.ceil(i_percentile / 100.0 * m_count);
+        long seen = 0;
+        for (int i = 0; i < BINS; i++) {
+            seen += m_bins[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(BinUpperBound(i), m_max);
+            }
+        }
+        return m_max;
+    }
+
+    public void Reset() {
+        for (int i = 0; i < BINS; i++) {
+            m_bins[i] = 0;
+        }
+        m_count = 0;
+        m_total = 0;
+        m_max = 0;
+    }
+}
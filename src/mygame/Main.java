@@ -1,21 +1,106 @@
 package mygame;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import com.jme3.app.SimpleApplication;
+import com.jme3.font.BitmapText;
 import com.jme3.material.Material;
 import com.jme3.material.RenderState;
 import com.jme3.renderer.RenderManager;
 import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
 import com.jme3.scene.Spatial;
+import com.jme3.scene.Spatial.CullHint;
 
 import com.jme3.input.KeyInput;
+import com.jme3.input.MouseInput;
 import com.jme3.input.controls.KeyTrigger;
+import com.jme3.input.controls.MouseButtonTrigger;
 import com.jme3.input.controls.ActionListener;
 import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.math.Vector4f;
 
 public class Main extends SimpleApplication {
 
-    Tesseract t = new Tesseract();
+    private static final Logger logger = Logger.getLogger(Main.class.getName());
+
+    //Run with -Dtesseract.gpu=true to rotate and project the tesseract in the vertex shader instead of on the CPU
+    boolean projectOnGpu = Boolean.getBoolean("tesseract.gpu");
+    Tesseract t = new Tesseract(new Vector4f(1.f, 1.f, 1.f, 1.f), projectOnGpu);
     Tesseract.RotationalPlane planeRotation = Tesseract.RotationalPlane.None;
+    Geometry tesseractGeom;
+
+    //Run with -Dtesseract.instances=N to also draw a population of N hypercubes with a single instanced draw call
+    int instanceCount = Integer.getInteger("tesseract.instances", 0);
+    Tesseract4DInstances instances;
+    Matrix4D instanceRotation = new Matrix4D();
+
+    //Run with -Dtesseract.batch=N to also spawn N CPU projected hypercubes rotated in parallel by a TesseractBatch
+    int batchCount = Integer.getInteger("tesseract.batch", 0);
+    TesseractBatch batch;
+
+    //Run with -Dtesseract.polytope=5cell, 16cell, 24cell, 120cell or 600cell to also show another regular 4D polytope
+    String polytopeName = System.getProperty("tesseract.polytope");
+    PolytopeMesh polytope;
+    Geometry polytopeGeom;
+
+    //C switches between the projections and the 3D slices at w = c, Page Up and Page Down move the hyperplane
+    boolean showCrossSection = false;
+    float sliceW = 0.f;
+    int sliceDirection = 0;
+    int slicedTesseractChange = -1;
+    int slicedPolytopeChange = -1;
+    CrossSection4D tesseractSection;
+    CrossSection4D polytopeSection;
+    Geometry tesseractSectionGeom;
+    Geometry polytopeSectionGeom;
+
+    //Run with -Dtesseract.simulation=HZ to rotate the CPU projected tesseract on a simulation thread stepping HZ times per second
+    int simulationRate = Integer.getInteger("tesseract.simulation", 0);
+    Simulation4D simulation;
+
+    //Run with -Dtesseract.profile=true to time the frames and the 4D stages, the summary is logged and shown on screen
+    boolean profile = Boolean.getBoolean("tesseract.profile");
+    Profiler4D profiler;
+    BitmapText profilerText;
+    int profilerReportCount = 0;
+
+    //A left click picks the cell of the tesseract in the middle of the screen from its 4D geometry
+    Picker4D picker;
+    Picker4D.Result pickResult = new Picker4D.Result();
+    CellPalette tesseractPalette;
+    BitmapText pickText;
+
+    //Run with -Dtesseract.compact=true to store the indices, colours and texture coordinates of the 4D meshes compactly
+    boolean compact = Boolean.getBoolean("tesseract.compact");
+    int compactedBytes = 0;
+    int compactedMeshes = 0;
+
+    //Run with -Dtesseract.invariantBound=true to bound the 4D meshes with spheres that contain every orientation,
+    //otherwise their bounds follow the projected vertices and the geometries refresh them whenever the meshes change
+    boolean invariantBound = Boolean.getBoolean("tesseract.invariantBound");
+
+    //Run with -Dtesseract.scene=true to also show a 4D scene graph, a hub tesseract with four smaller ones orbiting it
+    boolean showScene4D = Boolean.getBoolean("tesseract.scene");
+    Node4D scene4D;
+    Node4D orbit4D;
+    Geometry4D[] sceneGeometries;
+
+    //Run with -Dtesseract.cull=true to skip rotating and projecting the batched and scene tesseracts that are out of view
+    boolean cull = Boolean.getBoolean("tesseract.cull");
+    ViewCuller4D culler;
+
+    ModelLoader modelLoader;
+
+    //Run with -Dtesseract.idle=false to keep rendering at full speed while nothing moves
+    boolean idleWhenStill = !"false".equals(System.getProperty("tesseract.idle"));
+    IdleAppState idle;
 
     public static void main(String[] args) {
         Main app = new Main();
@@ -24,35 +109,315 @@ public class Main extends SimpleApplication {
 
     @Override
     public void simpleInitApp() {
-        Geometry tesseractGeom = new Geometry("Tesseract", t);
-        Material matVC = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        matVC.setBoolean("VertexColor", true);
+        tesseractGeom = new Geometry("Tesseract", t);
+        compact(t);
+        bound(tesseractGeom);
+        Material matVC;
+        if (projectOnGpu) {
+            matVC = new Material(assetManager, "MatDefs/Tesseract4D.j3md");
+            tesseractGeom.addControl(new Tesseract4DControl());
+        } else {
+            matVC = new Material(assetManager, "MatDefs/CellPalette.j3md");
+        }
+        //The cubes are coloured from a palette so a picked cube can be highlighted without touching the mesh
+        tesseractPalette = new CellPalette(t);
+        tesseractPalette.Apply(matVC);
         tesseractGeom.setMaterial(matVC);
         rootNode.attachChild(tesseractGeom);
 
         initInputKeys();        
-        
-        Spatial cone = assetManager.loadModel("Models/Cone/Cone.obj");
-        cone.setLocalTranslation(-5, 0, 0);
-        rootNode.attachChild(cone);
-        Material coneMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        coneMat.setColor("Color", ColorRGBA.Blue);
-        cone.setMaterial(coneMat);
-
-        
-        Spatial cylinder = assetManager.loadModel("Models/Cylinder/Cylinder.obj");
-        cylinder.setLocalTranslation(5, 0, 0);
-        rootNode.attachChild(cylinder);
-        Material cylinderMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        cylinderMat.setColor("Color", ColorRGBA.Green);
-        cylinder.setMaterial(cylinderMat);
-
-        Spatial torus = assetManager.loadModel("Models/Torus/Torus.obj");
-        torus.setLocalTranslation(0, -5, 0);
-        rootNode.attachChild(torus);
-        Material torusMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
-        torusMat.setColor("Color", ColorRGBA.Red);
-        torus.setMaterial(torusMat);
+
+        if (profile) {
+            initProfiler();
+        }
+
+        if (simulationRate > 0 && !projectOnGpu) {
+            simulation = new Simulation4D(simulationRate, 1);
+            simulation.Add(t);
+            simulation.Start();
+        }
+
+        if (cull) {
+            culler = new ViewCuller4D();
+            stateManager.attach(culler);
+        }
+
+        if (instanceCount > 0) {
+            initInstances();
+        }
+
+        if (batchCount > 0) {
+            initBatch();
+        }
+
+        if (polytopeName != null) {
+            initPolytope();
+        }
+
+        if (showScene4D && !projectOnGpu) {
+            initScene4D();
+        }
+
+        initCrossSections();
+        initPicker();
+
+        if (idleWhenStill) {
+            initIdle();
+        }
+
+        if (compact) {
+            logger.log(Level.INFO, "Compacted {0} meshes, {1} bytes saved, {2} bytes per mesh",
+                    new Object[]{compactedMeshes, compactedBytes, compactedBytes / Math.max(1, compactedMeshes)});
+        }
+
+        //The models load in parallel in the background and show up as soon as each of them is ready
+        modelLoader = new ModelLoader(this);
+        loadModel("Models/Cone/Cone", new Vector3f(-5, 0, 0), ColorRGBA.Blue);
+        loadModel("Models/Cylinder/Cylinder", new Vector3f(5, 0, 0), ColorRGBA.Green);
+        loadModel("Models/Torus/Torus", new Vector3f(0, -5, 0), ColorRGBA.Red);
+    }
+
+    private void loadModel(String path, final Vector3f translation, final ColorRGBA color) {
+        modelLoader.Load(path, new ModelLoader.Listener() {
+            @Override
+            public void ModelLoaded(Spatial model) {
+                model.setLocalTranslation(translation);
+                Material mat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
+                mat.setColor("Color", color);
+                model.setMaterial(mat);
+                rootNode.attachChild(model);
+            }
+        });
+    }
+
+    private void bound(Geometry geometry) {
+        Mesh mesh = geometry.getMesh();
+        if (invariantBound && mesh instanceof Tesseract) {
+            ((Tesseract) mesh).SetInvariantBound(true);
+        } else if (invariantBound && mesh instanceof PolytopeMesh) {
+            ((PolytopeMesh) mesh).SetInvariantBound(true);
+        }
+
+        boolean hasInvariantBound = mesh instanceof Tesseract && ((Tesseract) mesh).HasInvariantBound()
+                || mesh instanceof PolytopeMesh && ((PolytopeMesh) mesh).HasInvariantBound();
+        if (!hasInvariantBound) {
+            geometry.addControl(new ModelBoundControl());
+        }
+    }
+
+    private void compact(Mesh mesh) {
+        if (!compact) return;
+
+        compactedBytes += MeshCompactor.Compact(mesh);
+        compactedMeshes++;
+    }
+
+    private void initIdle() {
+        idle = new IdleAppState();
+        idle.Watch(t);
+        if (polytope != null) {
+            idle.Watch(polytope);
+        }
+        if (instances != null) {
+            idle.Watch(instances);
+        }
+        if (batch != null) {
+            idle.Watch(batch);
+        }
+        if (sceneGeometries != null) {
+            for (Geometry4D geometry : sceneGeometries) {
+                idle.Watch(geometry.GetTesseract());
+            }
+        }
+        idle.Watch(tesseractSection);
+        if (polytopeSection != null) {
+            idle.Watch(polytopeSection);
+        }
+        stateManager.attach(idle);
+    }
+
+    //The orbiting tesseracts are placed in 4D, half of them off the hyperplane of the hub towards and away from the light
+    private void initScene4D() {
+        scene4D = new Node4D("Scene 4D");
+        orbit4D = new Node4D("Orbit 4D");
+        sceneGeometries = new Geometry4D[5];
+
+        Material sceneMat = new Material(assetManager, "MatDefs/CellPalette.j3md");
+        new CellPalette(t).Apply(sceneMat);
+
+        sceneGeometries[0] = new Geometry4D("Hub 4D", new Tesseract());
+        scene4D.Attach(sceneGeometries[0]);
+        scene4D.Attach(orbit4D);
+        for (int i = 1; i < sceneGeometries.length; i++) {
+            Geometry4D satellite = new Geometry4D("Satellite 4D " + i, new Tesseract());
+            satellite.SetLocalTranslation(i % 2 == 0 ? 3.f : -3.f, 0.f, 0.f, i <= 2 ? 1.5f : -1.5f);
+            satellite.SetLocalScale(0.4f);
+            orbit4D.Attach(satellite);
+            sceneGeometries[i] = satellite;
+        }
+
+        for (Geometry4D geometry : sceneGeometries) {
+            compact(geometry.GetTesseract());
+            geometry.GetSpatial().setMaterial(sceneMat);
+            bound(geometry.GetSpatial());
+            if (culler != null) {
+                culler.Add(geometry.GetSpatial());
+            }
+        }
+
+        scene4D.UpdateWorldTransforms();
+        scene4D.GetSpatial().setLocalTranslation(0.f, 0.f, -10.f);
+        rootNode.attachChild(scene4D.GetSpatial());
+    }
+
+    //The slices are hidden until C is pressed, they then take the place of the projected meshes
+    private void initCrossSections() {
+        Material sectionMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
+        sectionMat.setBoolean("VertexColor", true);
+        sectionMat.getAdditionalRenderState().setFaceCullMode(RenderState.FaceCullMode.Off);
+
+        tesseractSection = new CrossSection4D(t);
+        tesseractSectionGeom = new Geometry("Tesseract Cross Section", tesseractSection);
+        tesseractSectionGeom.setMaterial(sectionMat);
+        tesseractSectionGeom.setCullHint(CullHint.Always);
+        bound(tesseractSectionGeom);
+        rootNode.attachChild(tesseractSectionGeom);
+
+        if (polytope != null) {
+            polytopeSection = new CrossSection4D(polytope.GetPolytope());
+            polytopeSectionGeom = new Geometry("Polytope Cross Section", polytopeSection);
+            polytopeSectionGeom.setMaterial(sectionMat);
+            polytopeSectionGeom.setLocalTransform(polytopeGeom.getLocalTransform());
+            polytopeSectionGeom.setCullHint(CullHint.Always);
+            bound(polytopeSectionGeom);
+            rootNode.attachChild(polytopeSectionGeom);
+        }
+    }
+
+    private void initPicker() {
+        picker = new Picker4D(t);
+        pickText = new BitmapText(guiFont, false);
+        pickText.setSize(guiFont.getCharSet().getRenderedSize());
+        pickText.setLocalTranslation(0, pickText.getLineHeight(), 0);
+        guiNode.attachChild(pickText);
+    }
+
+    private void pick() {
+        Vector2f center = new Vector2f(cam.getWidth() * 0.5f, cam.getHeight() * 0.5f);
+        float lightOnW = t.IsStereographicProjection() ? t.GetLightOnW() : 0.f;
+        if (picker.Pick(cam, center, tesseractGeom, t.GetOrientation(), lightOnW, pickResult)) {
+            tesseractPalette.Highlight(pickResult.GetCell(), ColorRGBA.White);
+            pickText.setText("Cell " + pickResult.GetCell() + ", face " + pickResult.GetFace()
+                    + ", 4D point " + pickResult.GetPoint4D());
+        } else {
+            tesseractPalette.ClearHighlight();
+            pickText.setText("");
+        }
+    }
+
+    private void initProfiler() {
+        profiler = new Profiler4D();
+        setAppProfiler(profiler);
+        StageProfiler.SetEnabled(true);
+
+        profilerText = new BitmapText(guiFont, false);
+        profilerText.setSize(guiFont.getCharSet().getRenderedSize());
+        profilerText.setLocalTranslation(0, cam.getHeight(), 0);
+        guiNode.attachChild(profilerText);
+    }
+
+    private void initInstances() {
+        Tesseract shared = new Tesseract(new Vector4f(1.f, 1.f, 1.f, 1.f), true);
+        compact(shared);
+        instances = new Tesseract4DInstances("Tesseracts", shared, instanceCount);
+        Material instancesMat = new Material(assetManager, "MatDefs/Tesseract4D.j3md");
+        instancesMat.setBoolean("VertexColor", true);
+        instancesMat.setBoolean("Instanced4D", true);
+        instances.setMaterial(instancesMat);
+        instances.addControl(new Tesseract4DControl());
+
+        //Lay the population out on a grid behind the scene, each hypercube with its own orientation and tint
+        int side = (int) FastMath.ceil(FastMath.sqrt(instanceCount));
+        Matrix4D orientation = new Matrix4D();
+        Vector3f translation = new Vector3f();
+        ColorRGBA tint = new ColorRGBA();
+        for (int i = 0; i < instanceCount; i++) {
+            int index = instances.AddInstance();
+            orientation.SetIdentity().RotatePlane(Matrix4D.X, Matrix4D.W, i * 7.f).RotatePlane(Matrix4D.Y, Matrix4D.Z, i * 13.f);
+            translation.set((i % side - side * 0.5f) * 4.f, (i / side - side * 0.5f) * 4.f, -20.f);
+            tint.set(0.5f + 0.5f * FastMath.nextRandomFloat(), 0.5f + 0.5f * FastMath.nextRandomFloat(), 0.5f + 0.5f * FastMath.nextRandomFloat(), 1.f);
+            instances.SetInstance(index, orientation, translation, 1.f, 0.f, tint);
+        }
+        rootNode.attachChild(instances);
+    }
+
+    private void initBatch() {
+        batch = new TesseractBatch(batchCount);
+        Material batchMat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
+        batchMat.setBoolean("VertexColor", true);
+
+        //Lay the population out on a grid in front of the scene
+        int side = (int) FastMath.ceil(FastMath.sqrt(batchCount));
+        for (int i = 0; i < batchCount; i++) {
+            Tesseract batched = new Tesseract();
+            batched.SetOrientation(new Matrix4D().RotatePlane(Matrix4D.X, Matrix4D.W, i * 11.f));
+            batch.Add(batched);
+            compact(batched);
+
+            Geometry batchedGeom = new Geometry("Batched Tesseract " + i, batched);
+            batchedGeom.setMaterial(batchMat);
+            batchedGeom.setLocalTranslation((i % side - side * 0.5f) * 4.f, (i / side - side * 0.5f) * 4.f, 10.f);
+            bound(batchedGeom);
+            if (culler != null) {
+                culler.Add(batchedGeom);
+            }
+            rootNode.attachChild(batchedGeom);
+        }
+        batch.Submit();
+    }
+
+    private void initPolytope() {
+        switch (polytopeName) {
+            case "5cell": {
+                polytope = new PolytopeMesh(Polytope.FiveCell());
+                break;
+            }
+
+            case "16cell": {
+                polytope = new PolytopeMesh(Polytope.SixteenCell());
+                break;
+            }
+
+            case "24cell": {
+                polytope = new PolytopeMesh(Polytope.TwentyFourCell());
+                break;
+            }
+
+            case "120cell": {
+                polytope = new PolytopeMesh(Polytope.OneHundredTwentyCell());
+                break;
+            }
+
+            case "600cell": {
+                polytope = new PolytopeMesh(Polytope.SixHundredCell());
+                break;
+            }
+
+            default: {
+                throw new IllegalArgumentException("Unknown polytope " + polytopeName);
+            }
+        }
+
+        polytopeGeom = new Geometry("Polytope", polytope);
+        compact(polytope);
+        Material polytopeMat = new Material(assetManager, "MatDefs/CellPalette.j3md");
+        new CellPalette(polytope.GetPolytope()).Apply(polytopeMat);
+        polytopeMat.getAdditionalRenderState().setFaceCullMode(RenderState.FaceCullMode.Off);
+        polytopeGeom.setMaterial(polytopeMat);
+        bound(polytopeGeom);
+        polytopeGeom.setLocalTranslation(0, 5, 0);
+        polytopeGeom.setLocalScale(2.f);
+        rootNode.attachChild(polytopeGeom);
     }
 
     private void initInputKeys() {
@@ -66,6 +431,10 @@ public class Main extends SimpleApplication {
         inputManager.addMapping("XYZW", new KeyTrigger(KeyInput.KEY_7));
         inputManager.addMapping("XZYW", new KeyTrigger(KeyInput.KEY_8));
         inputManager.addMapping("YZXW", new KeyTrigger(KeyInput.KEY_9));
+        inputManager.addMapping("ToggleCrossSection", new KeyTrigger(KeyInput.KEY_C));
+        inputManager.addMapping("Pick", new MouseButtonTrigger(MouseInput.BUTTON_LEFT));
+        inputManager.addMapping("SliceUp", new KeyTrigger(KeyInput.KEY_PGUP));
+        inputManager.addMapping("SliceDown", new KeyTrigger(KeyInput.KEY_PGDN));
 
         inputManager.addListener(actionListener, "ToggleProjection");
         inputManager.addListener(actionListener, "XY");
@@ -77,15 +446,58 @@ public class Main extends SimpleApplication {
         inputManager.addListener(actionListener, "XYZW");
         inputManager.addListener(actionListener, "XZYW");
         inputManager.addListener(actionListener, "YZXW");
+        inputManager.addListener(actionListener, "ToggleCrossSection");
+        inputManager.addListener(actionListener, "Pick");
+        inputManager.addListener(actionListener, "SliceUp");
+        inputManager.addListener(actionListener, "SliceDown");
     }
 
     private final ActionListener actionListener = new ActionListener() {
         @Override
         public void onAction(String name, boolean keyPressed, float tpf) {
+            //The hyperplane moves for as long as its key is held
+            if (name.equals("SliceUp") || name.equals("SliceDown")) {
+                sliceDirection = keyPressed ? (name.equals("SliceUp") ? 1 : -1) : 0;
+                return;
+            }
+
             if (keyPressed) {
                 switch (name) {
                     case "ToggleProjection": {
                         t.ToggleProjection();
+                        if (simulation != null) {
+                            simulation.SetStereographicProjection(t.IsStereographicProjection());
+                        }
+                        if (polytope != null) {
+                            polytope.ToggleProjection();
+                        }
+                        if (instances != null) {
+                            instances.ToggleProjection();
+                        }
+                        if (batch != null) {
+                            batch.ToggleProjection();
+                        }
+                        if (scene4D != null) {
+                            scene4D.ToggleProjection();
+                        }
+                        break;
+                    }
+
+                    case "ToggleCrossSection": {
+                        showCrossSection = !showCrossSection;
+                        CullHint projected = showCrossSection ? CullHint.Always : CullHint.Inherit;
+                        CullHint sliced = showCrossSection ? CullHint.Inherit : CullHint.Always;
+                        tesseractGeom.setCullHint(projected);
+                        tesseractSectionGeom.setCullHint(sliced);
+                        if (polytope != null) {
+                            polytopeGeom.setCullHint(projected);
+                            polytopeSectionGeom.setCullHint(sliced);
+                        }
+                        break;
+                    }
+
+                    case "Pick": {
+                        pick();
                         break;
                     }
 
@@ -140,12 +552,94 @@ public class Main extends SimpleApplication {
 
     @Override
     public void simpleUpdate(float tpf) {
+        if (profiler != null && profiler.GetReportCount() != profilerReportCount) {
+            profilerReportCount = profiler.GetReportCount();
+            profilerText.setText(profiler.GetSummary());
+        }
+
         //Rotating with 15 degrees per second on the desired plane
-        t.Rotate(30 * tpf, planeRotation);
+        if (simulation != null) {
+            simulation.SetRotation(planeRotation, 30);
+            simulation.Update();
+        } else {
+            t.Rotate(30 * tpf, planeRotation);
+        }
+
+        if (polytope != null) {
+            polytope.Rotate(30 * tpf, planeRotation);
+        }
+
+        //The whole scene turns with the selected plane and the orbit turns back within it at half the speed,
+        //only the tesseracts below a rotated node are posed and projected again
+        if (scene4D != null) {
+            scene4D.Rotate(30 * tpf, planeRotation);
+            orbit4D.Rotate(-15 * tpf, planeRotation);
+            scene4D.UpdateWorldTransforms();
+        }
+
+        if (instances != null && planeRotation != Tesseract.RotationalPlane.None) {
+            instances.RotateAll(instanceRotation.SetIdentity().Rotate(30 * tpf, planeRotation));
+        }
+
+        if (showCrossSection) {
+            updateCrossSections(tpf);
+        }
+
+        //The batch shows the step submitted last frame, then starts the next one while the scene renders
+        if (batch != null) {
+            batch.Complete();
+            batch.Rotate(30 * tpf, planeRotation);
+            batch.Submit();
+        }
+    }
+
+    //The slices follow the orientation of the meshes they cut and are only cut again when those changed
+    private void updateCrossSections(float tpf) {
+        if (sliceDirection != 0) {
+            float limit = t.GetRestRadius();
+            sliceW = FastMath.clamp(sliceW + sliceDirection * tpf, -limit, limit);
+            tesseractSection.SetSliceW(sliceW);
+            if (polytopeSection != null) {
+                polytopeSection.SetSliceW(sliceW);
+            }
+        }
+
+        if (t.GetChangeCount() != slicedTesseractChange) {
+            slicedTesseractChange = t.GetChangeCount();
+            tesseractSection.SetOrientation(t.GetOrientation());
+        }
+        if (polytopeSection != null && polytope.GetChangeCount() != slicedPolytopeChange) {
+            slicedPolytopeChange = polytope.GetChangeCount();
+            polytopeSection.SetOrientation(polytope.GetOrientation());
+        }
     }
 
     @Override
     public void simpleRender(RenderManager rm) {
         //TODO: add render code
     }
+
+    //Enqueued work, like an attached model, has to be shown even while the scene is idle
+    @Override
+    public <V> Future<V> enqueue(Callable<V> callable) {
+        Future<V> future = super.enqueue(callable);
+        if (idle != null) {
+            idle.Wake();
+        }
+        return future;
+    }
+
+    @Override
+    public void destroy() {
+        if (simulation != null) {
+            simulation.Stop();
+        }
+        if (modelLoader != null) {
+            modelLoader.Shutdown();
+        }
+        if (batch != null) {
+            batch.Shutdown();
+        }
+        super.destroy();
+    }
 }
@@ -0,0 +1,147 @@
+package mygame;
+
+import com.jme3.math.FastMath;
+
+//A 4x4 matrix describing a linear transformation of 4 dimensional space
+//Any sequence of plane rotations can be composed into a single matrix, so the trigonometry is computed once per
+//rotation and every vertex only needs one matrix-vector multiplication
+public class Matrix4D {
+
+    //Indices of the coordinates, used to name the rotational planes
+    public static final int X = 0;
+    public static final int Y = 1;
+    public static final int Z = 2;
+    public static final int W = 3;
+
+    //Row major, the element on row r and column c is m_values[r * 4 + c]
+    private final float[] m_values = new float[16];
+
+    public Matrix4D() {
+        SetIdentity();
+    }
+
+    public Matrix4D(Matrix4D i_other) {
+        Set(i_other);
+    }
+
+    public Matrix4D SetIdentity() {
+        for (int i = 0; i < 16; i++) {
+            m_values[i] = (i % 5 == 0) ? 1.f : 0.f;
+        }
+        return this;
+    }
+
+    public Matrix4D Set(Matrix4D i_other) {
+        System.arraycopy(i_other.m_values, 0, m_values, 0, 16);
+        return this;
+    }
+
+    public float Get(int i_row, int i_column) {
+        return m_values[i_row * 4 + i_column];
+    }
+
+    public void Set(int i_row, int i_column, float i_value) {
+        m_values[i_row * 4 + i_column] = i_value;
+    }
+
+    //Copies the 16 values in row major order, for code that works on flat arrays of matrices
+    public void Get(float[] o_values, int i_offset) {
+        System.arraycopy(m_values, 0, o_values, i_offset, 16);
+    }
+
+    public Matrix4D Set(float[] i_values, int i_offset) {
+        System.arraycopy(i_values, i_offset, m_values, 0, 16);
+        return this;
+    }
+
+    //Rotates by i_angle degrees in the plane spanned by the coordinates i_a and i_b, after the current transformation
+    public Matrix4D RotatePlane(int i_a, int i_b, float i_angle) {
+        float cos = FastMath.cos(i_angle * FastMath.DEG_TO_RAD);
+        float sin = FastMath.sin(i_angle * FastMath.DEG_TO_RAD);
+
+        //Multiplying with a plane rotation from the left only mixes rows i_a and i_b
+        for (int c = 0; c < 4; c++) {
+            float a = m_values[i_a * 4 + c];
+            float b = m_values[i_b * 4 + c];
+            m_values[i_a * 4 + c] = cos * a - sin * b;
+            m_values[i_b * 4 + c] = sin * a + cos * b;
+        }
+        return this;
+    }
+
+    //Rotates by i_angle degrees around one of the predefined planes, after the current transformation
+    public Matrix4D Rotate(float i_angle, Tesseract.RotationalPlane i_rotationPlane) {
+        switch (i_rotationPlane) {
+            case XY: return RotatePlane(X, Y, i_angle);
+            case XZ: return RotatePlane(X, Z, i_angle);
+            case YZ: return RotatePlane(Y, Z, i_angle);
+            case XW: return RotatePlane(X, W, i_angle);
+            case YW: return RotatePlane(Y, W, i_angle);
+            case ZW: return RotatePlane(Z, W, i_angle);
+
+            //The two planes of a double rotation are orthogonal, so they can be applied one after the other
+            case XYZW: return RotatePlane(X, Y, i_angle).RotatePlane(Z, W, i_angle);
+            case XZYW: return RotatePlane(X, Z, i_angle).RotatePlane(Y, W, i_angle);
+            case YZXW: return RotatePlane(Y, Z, i_angle).RotatePlane(X, W, i_angle);
+            default: return this;
+        }
+    }
+
+    //Applies i_other after the current transformation (this = i_other * this)
+    public Matrix4D Compose(Matrix4D i_other) {
+        for (int c = 0; c < 4; c++) {
+            float v0 = m_values[c];
+            float v1 = m_values[4 + c];
+            float v2 = m_values[8 + c];
+            float v3 = m_values[12 + c];
+            for (int r = 0; r < 4; r++) {
+                m_values[r * 4 + c] = i_other.m_values[r * 4] * v0 + i_other.m_values[r * 4 + 1] * v1
+                        + i_other.m_values[r * 4 + 2] * v2 + i_other.m_values[r * 4 + 3] * v3;
+            }
+        }
+        return this;
+    }
+
+    //Rotations composed over a long time slowly stop being orthonormal because of floating point error,
+    //Gram-Schmidt on the rows brings the matrix back to the closest pure rotation
+    public Matrix4D Orthonormalize() {
+        for (int r = 0; r < 4; r++) {
+            for (int p = 0; p < r; p++) {
+                float dot = 0.f;
+                for (int c = 0; c < 4; c++) {
+                    dot += m_values[r * 4 + c] * m_values[p * 4 + c];
+                }
+                for (int c = 0; c < 4; c++) {
+                    m_values[r * 4 + c] -= dot * m_values[p * 4 + c];
+                }
+            }
+
+            float length = 0.f;
+            for (int c = 0; c < 4; c++) {
+                length += m_values[r * 4 + c] * m_values[r * 4 + c];
+            }
+            float invLength = FastMath.invSqrt(length);
+            for (int c = 0; c < 4; c++) {
+                m_values[r * 4 + c] *= invLength;
+            }
+        }
+        return this;
+    }
+
+    //Transforms i_count points stored as packed XYZW floats, i_src and o_dst may be the same array
+    public void Transform(float[] i_src, int i_srcOffset, float[] o_dst, int i_dstOffset, int i_count) {
+        float[] m = m_values;
+        for (int i = 0; i < i_count; i++) {
+            int s = i_srcOffset + i * 4;
+            int d = i_dstOffset + i * 4;
+            float x = i_src[s];
+            float y = i_src[s + 1];
+            float z = i_src[s + 2];
+            float w = i_src[s + 3];
+            o_dst[d] = m[0] * x + m[1] * y + m[2] * z + m[3] * w;
+            o_dst[d + 1] = m[4] * x + m[5] * y + m[6] * z + m[7] * w;
+            o_dst[d + 2] = m[8] * x + m[9] * y + m[10] * z + m[11] * w;
+            o_dst[d + 3] = m[12] * x + m[13] * y + m[14] * z + m[15] * w;
+        }
+    }
+}
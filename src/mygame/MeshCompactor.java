@@ -0,0 +1,145 @@
+package mygame;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.jme3.math.FastMath;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.util.BufferUtils;
+
+/*
+    Re-encodes the buffers of a mesh that never change after it is built in a more compact vertex format:
+        Index - 16 bit indices while every vertex can be addressed with them
+        Color - RGBA as 4 normalised unsigned bytes instead of 4 floats
+        TexCoord, TexCoord2 - half floats, which are exact for the cell IDs up to 2048
+
+    The positions are left alone, they are streamed every frame or carry 4D coordinates the projection needs at full
+    precision. Only meshes that never write their index, colour or texture coordinate buffers again can be compacted,
+    like the Tesseract and the PolytopeMesh but not the CrossSection4D.
+
+    A buffer shared by several meshes, like the topology every Tesseract shares, is compacted once and the compact
+    copy is shared the same way.
+ */
+public final class MeshCompactor {
+
+    private static final Logger logger = Logger.getLogger(MeshCompactor.class.getName());
+    private static final int MAX_SHORT_INDEX_VERTICES = 65536;
+
+    //The compact copy of every buffer compacted so far, VertexBuffer compares by identity
+    private static final Map<VertexBuffer, VertexBuffer> s_compacted = new WeakHashMap<VertexBuffer, VertexBuffer>();
+
+    private MeshCompactor() {
+    }
+
+    //Returns the number of bytes saved, the sizes are logged at FINE level
+    public static synchronized int Compact(Mesh io_mesh) {
+        int before = GetSizeInBytes(io_mesh);
+
+        CompactIndices(io_mesh);
+        CompactColors(io_mesh);
+        CompactToHalf(io_mesh, Type.TexCoord);
+        CompactToHalf(io_mesh, Type.TexCoord2);
+
+        int after = GetSizeInBytes(io_mesh);
+        logger.log(Level.FINE, "Compacted {0} from {1} to {2} bytes, {3} bytes saved",
+                new Object[]{io_mesh.getClass().getSimpleName(), before, after, before - after});
+        return before - after;
+    }
+
+    //The memory held by the vertex buffers of the mesh
+    public static int GetSizeInBytes(Mesh i_mesh) {
+        int bytes = 0;
+        for (VertexBuffer buffer : i_mesh.getBufferList()) {
+            bytes += GetSizeInBytes(buffer);
+        }
+        return bytes;
+    }
+
+    private static int GetSizeInBytes(VertexBuffer i_buffer) {
+        Buffer data = i_buffer.getData();
+        if (data == null) return 0;
+
+        //Half floats are stored in a ByteBuffer, the capacity is already in bytes
+        if (data instanceof ByteBuffer) return data.capacity();
+        if (data instanceof ShortBuffer) return data.capacity() * 2;
+        return data.capacity() * 4;
+    }
+
+    private static void CompactIndices(Mesh io_mesh) {
+        VertexBuffer buffer = io_mesh.getBuffer(Type.Index);
+        if (buffer == null || !(buffer.getData() instanceof IntBuffer)) return;
+        if (io_mesh.getVertexCount() > MAX_SHORT_INDEX_VERTICES) return;
+
+        VertexBuffer compact = s_compacted.get(buffer);
+        if (compact == null) {
+            IntBuffer indices = (IntBuffer) buffer.getData();
+            ShortBuffer shortIndices = BufferUtils.createShortBuffer(indices.limit());
+            for (int i = 0; i < indices.limit(); i++) {
+                shortIndices.put((short) indices.get(i));
+            }
+            shortIndices.flip();
+
+            compact = new VertexBuffer(Type.Index);
+            compact.setupData(buffer.getUsage(), buffer.getNumComponents(), Format.UnsignedShort, shortIndices);
+            s_compacted.put(buffer, compact);
+        }
+
+        io_mesh.clearBuffer(Type.Index);
+        io_mesh.setBuffer(compact);
+    }
+
+    private static void CompactColors(Mesh io_mesh) {
+        VertexBuffer buffer = io_mesh.getBuffer(Type.Color);
+        if (buffer == null || buffer.getFormat() != Format.Float) return;
+
+        VertexBuffer compact = s_compacted.get(buffer);
+        if (compact == null) {
+            FloatBuffer colors = (FloatBuffer) buffer.getData();
+            ByteBuffer bytes = BufferUtils.createByteBuffer(colors.limit());
+            for (int i = 0; i < colors.limit(); i++) {
+                bytes.put((byte) Math.round(FastMath.clamp(colors.get(i), 0.f, 1.f) * 255.f));
+            }
+            bytes.flip();
+
+            compact = new VertexBuffer(Type.Color);
+            compact.setupData(buffer.getUsage(), buffer.getNumComponents(), Format.UnsignedByte, bytes);
+            compact.setNormalized(true);
+            s_compacted.put(buffer, compact);
+        }
+
+        io_mesh.clearBuffer(Type.Color);
+        io_mesh.setBuffer(compact);
+    }
+
+    private static void CompactToHalf(Mesh io_mesh, Type i_type) {
+        VertexBuffer buffer = io_mesh.getBuffer(i_type);
+        if (buffer == null || buffer.getFormat() != Format.Float) return;
+
+        VertexBuffer compact = s_compacted.get(buffer);
+        if (compact == null) {
+            FloatBuffer values = (FloatBuffer) buffer.getData();
+            ByteBuffer halves = BufferUtils.createByteBuffer(values.limit() * 2);
+            for (int i = 0; i < values.limit(); i++) {
+                halves.putShort(FastMath.convertFloatToHalf(values.get(i)));
+            }
+            halves.flip();
+
+            compact = new VertexBuffer(i_type);
+            compact.setupData(buffer.getUsage(), buffer.getNumComponents(), Format.Half, halves);
+            s_compacted.put(buffer, compact);
+        }
+
+        io_mesh.clearBuffer(i_type);
+        io_mesh.setBuffer(compact);
+    }
+}
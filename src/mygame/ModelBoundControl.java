@@ -0,0 +1,31 @@
+package mygame;
+
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.control.AbstractControl;
+
+//Keeps the world bound of a geometry in step with a ChangeTracked mesh that moves its own vertices
+//jME only recomputes the world bound when the geometry is told its model bound changed, which this does once per change
+//Meshes with an invariant bound do not need it, their bound never changes while they rotate
+public class ModelBoundControl extends AbstractControl {
+
+    private boolean b_isInitialized = false;
+    private int m_changeCount;
+
+    @Override
+    protected void controlUpdate(float tpf) {
+        Geometry geometry = (Geometry) spatial;
+        ChangeTracked mesh = (ChangeTracked) geometry.getMesh();
+
+        if (b_isInitialized && m_changeCount == mesh.GetChangeCount()) return;
+        m_changeCount = mesh.GetChangeCount();
+        b_isInitialized = true;
+
+        geometry.updateModelBound();
+    }
+
+    @Override
+    protected void controlRender(RenderManager rm, ViewPort vp) {
+    }
+}
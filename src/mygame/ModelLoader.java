@@ -0,0 +1,157 @@
+package mygame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.jme3.app.Application;
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetManager;
+import com.jme3.scene.Spatial;
+
+/*
+    Loads models on background threads so the render thread never waits for a parser.
+    A model is named by its path without extension: the binary .j3o is loaded when it exists, the .obj otherwise.
+    Requests for a model that is still loading share its task and receive their own clone of the result. Once loaded
+    the task is forgotten, the AssetManager caches the model itself and serves the later requests from memory.
+    The desktop game and the Android app share this class, see app/build.gradle.
+    Listeners are called on the render thread through Application.enqueue(), so they may attach to the scene.
+ */
+public class ModelLoader {
+
+    private static final Logger logger = Logger.getLogger(ModelLoader.class.getName());
+    private static final String[] EXTENSIONS = {".j3o", ".obj"};
+
+    public interface Listener {
+        //Called on the render thread with a clone of the model, which the listener owns
+        void ModelLoaded(Spatial i_model);
+    }
+
+    private final Application m_app;
+    private final AssetManager m_assetManager;
+    private final ExecutorService m_executor;
+    private final ConcurrentMap<String, LoadTask> m_loading = new ConcurrentHashMap<String, LoadTask>();
+
+    public ModelLoader(Application i_app) {
+        this(i_app, Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    public ModelLoader(Application i_app, int i_threads) {
+        m_app = i_app;
+        m_assetManager = i_app.getAssetManager();
+        m_executor = Executors.newFixedThreadPool(i_threads, new ThreadFactory() {
+            private int m_count = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable i_runnable) {
+                Thread thread = new Thread(i_runnable, "ModelLoader-" + m_count++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    //Starts loading the model unless it is already loading
+    public Future<Spatial> Load(String i_path) {
+        return Task(i_path);
+    }
+
+    //Loads the model in the background and hands a clone of it to the listener on the render thread
+    public void Load(String i_path, Listener i_listener) {
+        Task(i_path).AddListener(i_listener);
+    }
+
+    private LoadTask Task(String i_path) {
+        LoadTask task = m_loading.get(i_path);
+        if (task != null) return task;
+
+        task = new LoadTask(i_path);
+        LoadTask loading = m_loading.putIfAbsent(i_path, task);
+        if (loading != null) return loading;
+
+        m_executor.execute(task);
+        return task;
+    }
+
+    //The first existing file of the model, in order of preference
+    private String Resolve(String i_path) {
+        for (String extension : EXTENSIONS) {
+            if (m_assetManager.locateAsset(new AssetKey<Object>(i_path + extension)) != null) {
+                return i_path + extension;
+            }
+        }
+        throw new IllegalArgumentException("No model found for " + i_path);
+    }
+
+    public void Shutdown() {
+        m_executor.shutdownNow();
+    }
+
+    //Loads one model and notifies the listeners once it is done, whether they came before or after that
+    private class LoadTask extends FutureTask<Spatial> {
+
+        private final String m_path;
+        private final List<Listener> m_listeners = new ArrayList<Listener>();
+
+        LoadTask(final String i_path) {
+            super(new Callable<Spatial>() {
+                @Override
+                public Spatial call() {
+                    return m_assetManager.loadModel(Resolve(i_path));
+                }
+            });
+            m_path = i_path;
+        }
+
+        synchronized void AddListener(Listener i_listener) {
+            if (isDone()) {
+                Notify(i_listener);
+            } else {
+                m_listeners.add(i_listener);
+            }
+        }
+
+        @Override
+        protected synchronized void done() {
+            m_loading.remove(m_path, this);
+            for (int i = 0; i < m_listeners.size(); i++) {
+                Notify(m_listeners.get(i));
+            }
+            m_listeners.clear();
+        }
+
+        private void Notify(final Listener i_listener) {
+            final Spatial model;
+            try {
+                model = get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (CancellationException e) {
+                return;
+            } catch (ExecutionException e) {
+                logger.log(Level.WARNING, "Could not load the model " + m_path, e.getCause());
+                return;
+            }
+
+            m_app.enqueue(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    i_listener.ModelLoaded(model.clone(false));
+                    return null;
+                }
+            });
+        }
+    }
+}
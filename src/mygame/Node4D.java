@@ -0,0 +1,76 @@
+package mygame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jme3.scene.Node;
+
+//A 4D spatial with children, their transforms are relative to this one. Its 3D counterpart holds theirs
+public class Node4D extends Spatial4D {
+
+    private final List<Spatial4D> m_children = new ArrayList<Spatial4D>();
+    private final Node m_node;
+
+    public Node4D(String i_name) {
+        super(i_name);
+        m_node = new Node(i_name);
+    }
+
+    @Override
+    public Node GetSpatial() {
+        return m_node;
+    }
+
+    public void Attach(Spatial4D i_child) {
+        if (i_child.GetParent() == this) return;
+        if (i_child.GetParent() != null) {
+            i_child.GetParent().Detach(i_child);
+        }
+
+        m_children.add(i_child);
+        m_node.attachChild(i_child.GetSpatial());
+        i_child.SetParent(this);
+    }
+
+    public boolean Detach(Spatial4D i_child) {
+        if (!m_children.remove(i_child)) return false;
+
+        m_node.detachChild(i_child.GetSpatial());
+        i_child.SetParent(null);
+        return true;
+    }
+
+    public int GetChildCount() {
+        return m_children.size();
+    }
+
+    public Spatial4D GetChild(int i_index) {
+        return m_children.get(i_index);
+    }
+
+    @Override
+    public void ToggleProjection() {
+        for (int i = 0; i < m_children.size(); i++) {
+            m_children.get(i).ToggleProjection();
+        }
+    }
+
+    //Called on the root once per frame before rendering, returns the number of spatials that were re-transformed
+    public int UpdateWorldTransforms() {
+        Node4D parent = GetParent();
+        return UpdateWorld(parent == null ? null : parent.GetWorldTransform(), false);
+    }
+
+    @Override
+    int UpdateChildren(boolean i_hasChanged) {
+        int updated = 0;
+        for (int i = 0; i < m_children.size(); i++) {
+            Spatial4D child = m_children.get(i);
+            //An unchanged node only descends into the children that are dirty or have something dirty below them
+            if (i_hasChanged || child.IsWorldDirty() || child.HasDirtyChild()) {
+                updated += child.UpdateWorld(GetWorldTransform(), i_hasChanged);
+            }
+        }
+        return updated;
+    }
+}
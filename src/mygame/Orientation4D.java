@@ -0,0 +1,53 @@
+package mygame;
+
+//An orientation in 4D accumulated from successive rotations, shared by the Tesseract, the PolytopeMesh and Spatial4D.
+//Composing many rotations lets the rounding errors skew the matrix, so it is re-orthonormalized every few rotations
+public class Orientation4D {
+
+    private static final int ORTHONORMALIZE_INTERVAL = 60;
+
+    private final Matrix4D m_orientation;
+    private int m_rotationsSinceOrthonormalize = 0;
+
+    //Reused for the rotations requested through a RotationalPlane
+    private final Matrix4D m_rotation = new Matrix4D();
+
+    public Orientation4D() {
+        this(new Matrix4D());
+    }
+
+    //Accumulates into a matrix owned by someone else, e.g. the rotation of a Transform4D
+    public Orientation4D(Matrix4D io_orientation) {
+        m_orientation = io_orientation;
+    }
+
+    public Matrix4D Get() {
+        return m_orientation;
+    }
+
+    //Returns false when there is nothing to rotate and the orientation is unchanged
+    public boolean Rotate(float i_angle, Tesseract.RotationalPlane i_rotationPlane) {
+        if (i_rotationPlane == Tesseract.RotationalPlane.None || i_angle == 0.f) return false;
+
+        Rotate(m_rotation.SetIdentity().Rotate(i_angle, i_rotationPlane));
+        return true;
+    }
+
+    public void Rotate(Matrix4D i_rotation) {
+        m_orientation.Compose(i_rotation);
+        if (++m_rotationsSinceOrthonormalize >= ORTHONORMALIZE_INTERVAL) {
+            m_orientation.Orthonormalize();
+            m_rotationsSinceOrthonormalize = 0;
+        }
+    }
+
+    public void Set(Matrix4D i_orientation) {
+        m_orientation.Set(i_orientation);
+        Reset();
+    }
+
+    //The matrix was replaced as a whole, e.g. by copying a transform over it, and no longer carries any drift
+    public void Reset() {
+        m_rotationsSinceOrthonormalize = 0;
+    }
+}
@@ -0,0 +1,392 @@
+package mygame;
+
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.math.Vector4f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Spatial;
+
+/*
+    Picks the cell and face of a projected polytope under a ray without looking at its projected mesh.
+    A ray pick on the Geometry would make jME rebuild its collision tree every time the projection streams new
+    positions, this works on the 4D geometry instead, which never changes shape.
+
+    Every point of the ray is the projection of a line of 4D points, so the ray pulls back to a 2D flat in 4D:
+        orthographic: (o + t d, w) for any w
+        stereographic: the points between the light at (0, 0, 0, L) and (o + t d, 0) on the hyperplane w = 0
+    The flat is rotated back into the rest pose with the inverse orientation and intersected with the plane of every
+    face there. Two planes in 4D meet in a single point, which is on the face when it lies inside its polygon.
+
+    The acceleration structure is computed once from the rest pose: a bounding sphere per cell, which skips every
+    cell the flat passes further away from, and an orthonormal basis with the polygon in 2D coordinates per face.
+ */
+public class Picker4D {
+
+    private static final double EPSILON = 1e-9;
+    private static final float INSIDE_TOLERANCE = 1e-5f;
+
+    public static class Result {
+
+        private int m_cell = -1;
+        private int m_face = -1;
+        private float m_distance;
+        private Vector3f m_contactPoint = new Vector3f();
+        private Vector4f m_point4D = new Vector4f();
+
+        public int GetCell() {
+            return m_cell;
+        }
+
+        //The face as numbered by the Polytope the picker was built from
+        public int GetFace() {
+            return m_face;
+        }
+
+        //Along the ray, in the units of the space the ray was given in
+        public float GetDistance() {
+            return m_distance;
+        }
+
+        //The hit on the projected mesh
+        public Vector3f GetContactPoint() {
+            return m_contactPoint;
+        }
+
+        //The hit on the rotated polytope, before it is projected
+        public Vector4f GetPoint4D() {
+            return m_point4D;
+        }
+    }
+
+    private int m_cellCount;
+    private int[] m_cellOffsets;
+    private int[] m_cellFaces;
+    private float[] m_cellCenters; //XYZW per cell in the rest pose
+    private float[] m_cellRadii;
+
+    //Per face: its first vertex and two orthonormal vectors spanning its plane, XYZW each, in the rest pose
+    private float[] m_faceOrigins;
+    private float[] m_faceAxes;
+    //Per face vertex: its UV coordinates in the plane of the face, laid out like the face vertices
+    private int[] m_faceOffsets;
+    private float[] m_facePolygons;
+
+    //The flat of the current pick, A + a D1 + b D2, in the rotated space and in the rest pose
+    private float[] m_matrix = new float[16];
+    private float[] m_flat = new float[12];
+    private float[] m_restFlat = new float[12];
+    private double[] m_system = new double[20]; //4 rows of 4 coefficients and the right hand side
+    private double[] m_solution = new double[4];
+
+    private Vector3f m_near = new Vector3f();
+    private Vector3f m_far = new Vector3f();
+    private Vector3f m_origin = new Vector3f();
+    private Vector3f m_direction = new Vector3f();
+
+    public Picker4D(Tesseract i_tesseract) {
+        this(i_tesseract.GetPolytope());
+    }
+
+    public Picker4D(Polytope i_polytope) {
+        int vertexCount = i_polytope.GetVertexCount();
+        float[] vertices = new float[vertexCount * 4];
+        i_polytope.WriteVertices4D(vertices, 0);
+
+        m_cellCount = i_polytope.GetCellCount();
+        m_cellOffsets = new int[m_cellCount + 1];
+        for (int c = 0; c < m_cellCount; c++) {
+            m_cellOffsets[c + 1] = m_cellOffsets[c] + i_polytope.GetCellFaceCount(c);
+        }
+        m_cellFaces = new int[m_cellOffsets[m_cellCount]];
+        m_cellCenters = new float[m_cellCount * 4];
+        m_cellRadii = new float[m_cellCount];
+        for (int c = 0; c < m_cellCount; c++) {
+            for (int f = 0; f < i_polytope.GetCellFaceCount(c); f++) {
+                m_cellFaces[m_cellOffsets[c] + f] = i_polytope.GetCellFace(c, f);
+            }
+            InitCellSphere(i_polytope, c, vertices);
+        }
+
+        int faceCount = i_polytope.GetFaceCount();
+        m_faceOffsets = new int[faceCount + 1];
+        for (int f = 0; f < faceCount; f++) {
+            m_faceOffsets[f + 1] = m_faceOffsets[f] + i_polytope.GetFaceSize(f);
+        }
+        m_faceOrigins = new float[faceCount * 4];
+        m_faceAxes = new float[faceCount * 8];
+        m_facePolygons = new float[m_faceOffsets[faceCount] * 2];
+        for (int f = 0; f < faceCount; f++) {
+            InitFacePlane(i_polytope, f, vertices);
+        }
+    }
+
+    //The centroid of the vertices of the cell and the distance to the furthest of them
+    private void InitCellSphere(Polytope i_polytope, int i_cell, float[] i_vertices) {
+        int count = 0;
+        float[] center = new float[4];
+        for (int f = 0; f < i_polytope.GetCellFaceCount(i_cell); f++) {
+            int face = i_polytope.GetCellFace(i_cell, f);
+            for (int i = 0; i < i_polytope.GetFaceSize(face); i++) {
+                int v = i_polytope.GetFaceVertex(face, i);
+                for (int d = 0; d < 4; d++) {
+                    center[d] += i_vertices[v * 4 + d];
+                }
+                count++;
+            }
+        }
+
+        float radius = 0.f;
+        for (int d = 0; d < 4; d++) {
+            center[d] /= count;
+        }
+        for (int f = 0; f < i_polytope.GetCellFaceCount(i_cell); f++) {
+            int face = i_polytope.GetCellFace(i_cell, f);
+            for (int i = 0; i < i_polytope.GetFaceSize(face); i++) {
+                int v = i_polytope.GetFaceVertex(face, i);
+                float distance = 0.f;
+                for (int d = 0; d < 4; d++) {
+                    float delta = i_vertices[v * 4 + d] - center[d];
+                    distance += delta * delta;
+                }
+                radius = Math.max(radius, (float) Math.sqrt(distance));
+            }
+        }
+
+        System.arraycopy(center, 0, m_cellCenters, i_cell * 4, 4);
+        m_cellRadii[i_cell] = radius;
+    }
+
+    //Gram-Schmidt on the first two edges of the face, then every vertex in the coordinates of that basis
+    private void InitFacePlane(Polytope i_polytope, int i_face, float[] i_vertices) {
+        int v0 = i_polytope.GetFaceVertex(i_face, 0);
+        int v1 = i_polytope.GetFaceVertex(i_face, 1);
+        int v2 = i_polytope.GetFaceVertex(i_face, 2);
+
+        float[] u = new float[4];
+        float[] v = new float[4];
+        for (int d = 0; d < 4; d++) {
+            u[d] = i_vertices[v1 * 4 + d] - i_vertices[v0 * 4 + d];
+            v[d] = i_vertices[v2 * 4 + d] - i_vertices[v0 * 4 + d];
+        }
+        Normalize(u);
+        float projection = Dot(u, 0, v, 0);
+        for (int d = 0; d < 4; d++) {
+            v[d] -= projection * u[d];
+        }
+        Normalize(v);
+
+        System.arraycopy(i_vertices, v0 * 4, m_faceOrigins, i_face * 4, 4);
+        System.arraycopy(u, 0, m_faceAxes, i_face * 8, 4);
+        System.arraycopy(v, 0, m_faceAxes, i_face * 8 + 4, 4);
+
+        for (int i = 0; i < i_polytope.GetFaceSize(i_face); i++) {
+            int vertex = i_polytope.GetFaceVertex(i_face, i);
+            float[] delta = new float[4];
+            for (int d = 0; d < 4; d++) {
+                delta[d] = i_vertices[vertex * 4 + d] - i_vertices[v0 * 4 + d];
+            }
+            m_facePolygons[(m_faceOffsets[i_face] + i) * 2] = Dot(delta, 0, u, 0);
+            m_facePolygons[(m_faceOffsets[i_face] + i) * 2 + 1] = Dot(delta, 0, v, 0);
+        }
+    }
+
+    private static float Dot(float[] i_a, int i_aOffset, float[] i_b, int i_bOffset) {
+        return i_a[i_aOffset] * i_b[i_bOffset] + i_a[i_aOffset + 1] * i_b[i_bOffset + 1]
+                + i_a[i_aOffset + 2] * i_b[i_bOffset + 2] + i_a[i_aOffset + 3] * i_b[i_bOffset + 3];
+    }
+
+    private static void Normalize(float[] io_vector) {
+        float length = (float) Math.sqrt(Dot(io_vector, 0, io_vector, 0));
+        for (int d = 0; d < 4; d++) {
+            io_vector[d] /= length;
+        }
+    }
+
+    //Picks under a point of the screen, i_geometry is the Spatial the projected mesh is drawn with
+    public boolean Pick(Camera i_camera, Vector2f i_screen, Spatial i_geometry,
+            Matrix4D i_orientation, float i_lightOnW, Result o_result) {
+        i_camera.getWorldCoordinates(i_screen, 0.f, m_near);
+        i_camera.getWorldCoordinates(i_screen, 1.f, m_far);
+        i_geometry.worldToLocal(m_near, m_origin);
+        i_geometry.worldToLocal(m_far, m_direction);
+        m_direction.subtractLocal(m_origin).normalizeLocal();
+
+        return Pick(m_origin, m_direction, i_orientation, i_lightOnW, o_result);
+    }
+
+    //Picks along a ray given in the space of the projected mesh, the closest hit is written to o_result
+    //The orientation has to be a rotation and i_lightOnW is 0 for the orthographic projection, as in ProjectionKernel
+    public boolean Pick(Vector3f i_origin, Vector3f i_direction,
+            Matrix4D i_orientation, float i_lightOnW, Result o_result) {
+        boolean isStereographic = i_lightOnW != 0.f;
+        if (isStereographic) {
+            SetFlat(0.f, 0.f, 0.f, i_lightOnW,
+                    i_origin.x, i_origin.y, i_origin.z, -i_lightOnW,
+                    i_direction.x, i_direction.y, i_direction.z, 0.f);
+        } else {
+            SetFlat(i_origin.x, i_origin.y, i_origin.z, 0.f,
+                    i_direction.x, i_direction.y, i_direction.z, 0.f,
+                    0.f, 0.f, 0.f, 1.f);
+        }
+
+        //The inverse of a rotation is its transpose
+        i_orientation.Get(m_matrix, 0);
+        for (int p = 0; p < 3; p++) {
+            for (int i = 0; i < 4; i++) {
+                m_restFlat[p * 4 + i] = m_matrix[i] * m_flat[p * 4] + m_matrix[4 + i] * m_flat[p * 4 + 1]
+                        + m_matrix[8 + i] * m_flat[p * 4 + 2] + m_matrix[12 + i] * m_flat[p * 4 + 3];
+            }
+        }
+
+        o_result.m_cell = -1;
+        o_result.m_face = -1;
+        float closest = Float.POSITIVE_INFINITY;
+        float closestA = 0.f;
+        float closestB = 0.f;
+
+        for (int c = 0; c < m_cellCount; c++) {
+            if (!FlatReachesCell(c)) continue;
+
+            for (int i = m_cellOffsets[c]; i < m_cellOffsets[c + 1]; i++) {
+                int face = m_cellFaces[i];
+                if (!IntersectFace(face)) continue;
+
+                //A and B are the coordinates along D1 and D2, U and V the coordinates in the plane of the face
+                float a = (float) m_solution[0];
+                float b = (float) m_solution[1];
+                float t;
+                if (isStereographic) {
+                    //a is how far from the light towards the hyperplane the 4D point is, it has to be before the light
+                    if (a <= 0.f) continue;
+                    t = b / a;
+                } else {
+                    t = a;
+                }
+                if (t < 0.f || t >= closest) continue;
+                if (!IsInsideFace(face, (float) m_solution[2], (float) m_solution[3])) continue;
+
+                closest = t;
+                closestA = a;
+                closestB = b;
+                o_result.m_cell = c;
+                o_result.m_face = face;
+            }
+        }
+
+        if (o_result.m_cell < 0) return false;
+
+        o_result.m_distance = closest;
+        o_result.m_contactPoint.set(i_direction).multLocal(closest).addLocal(i_origin);
+        o_result.m_point4D.set(
+                m_flat[0] + closestA * m_flat[4] + closestB * m_flat[8],
+                m_flat[1] + closestA * m_flat[5] + closestB * m_flat[9],
+                m_flat[2] + closestA * m_flat[6] + closestB * m_flat[10],
+                m_flat[3] + closestA * m_flat[7] + closestB * m_flat[11]);
+        return true;
+    }
+
+    private void SetFlat(float i_ax, float i_ay, float i_az, float i_aw,
+            float i_d1x, float i_d1y, float i_d1z, float i_d1w,
+            float i_d2x, float i_d2y, float i_d2z, float i_d2w) {
+        m_flat[0] = i_ax; m_flat[1] = i_ay; m_flat[2] = i_az; m_flat[3] = i_aw;
+        m_flat[4] = i_d1x; m_flat[5] = i_d1y; m_flat[6] = i_d1z; m_flat[7] = i_d1w;
+        m_flat[8] = i_d2x; m_flat[9] = i_d2y; m_flat[10] = i_d2z; m_flat[11] = i_d2w;
+    }
+
+    //Whether the whole unbounded flat comes within the bounding sphere of the cell
+    private boolean FlatReachesCell(int i_cell) {
+        float[] f = m_restFlat;
+        float rx = m_cellCenters[i_cell * 4] - f[0];
+        float ry = m_cellCenters[i_cell * 4 + 1] - f[1];
+        float rz = m_cellCenters[i_cell * 4 + 2] - f[2];
+        float rw = m_cellCenters[i_cell * 4 + 3] - f[3];
+
+        double d11 = Dot(f, 4, f, 4);
+        double d12 = Dot(f, 4, f, 8);
+        double d22 = Dot(f, 8, f, 8);
+        double r1 = f[4] * rx + f[5] * ry + f[6] * rz + f[7] * rw;
+        double r2 = f[8] * rx + f[9] * ry + f[10] * rz + f[11] * rw;
+        double determinant = d11 * d22 - d12 * d12;
+        if (Math.abs(determinant) < EPSILON) return true;
+
+        //The closest point of the flat to the centre, from the normal equations
+        double a = (r1 * d22 - r2 * d12) / determinant;
+        double b = (r2 * d11 - r1 * d12) / determinant;
+        double distance = 0.0;
+        for (int d = 0; d < 4; d++) {
+            double delta = m_cellCenters[i_cell * 4 + d] - f[d] - a * f[4 + d] - b * f[8 + d];
+            distance += delta * delta;
+        }
+        float radius = m_cellRadii[i_cell] * (1.f + INSIDE_TOLERANCE);
+        return distance <= radius * radius;
+    }
+
+    //Solves A + a D1 + b D2 = O + u U + v V for the plane of the face, false when the two planes are parallel
+    private boolean IntersectFace(int i_face) {
+        for (int d = 0; d < 4; d++) {
+            m_system[d * 5] = m_restFlat[4 + d];
+            m_system[d * 5 + 1] = m_restFlat[8 + d];
+            m_system[d * 5 + 2] = -m_faceAxes[i_face * 8 + d];
+            m_system[d * 5 + 3] = -m_faceAxes[i_face * 8 + 4 + d];
+            m_system[d * 5 + 4] = m_faceOrigins[i_face * 4 + d] - m_restFlat[d];
+        }
+        return Solve4(m_system, m_solution);
+    }
+
+    //Gaussian elimination with partial pivoting on 4 rows of 4 coefficients followed by the right hand side
+    private static boolean Solve4(double[] io_system, double[] o_solution) {
+        for (int column = 0; column < 4; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < 4; row++) {
+                if (Math.abs(io_system[row * 5 + column]) > Math.abs(io_system[pivot * 5 + column])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(io_system[pivot * 5 + column]) < EPSILON) return false;
+
+            if (pivot != column) {
+                for (int i = 0; i < 5; i++) {
+                    double swap = io_system[column * 5 + i];
+                    io_system[column * 5 + i] = io_system[pivot * 5 + i];
+                    io_system[pivot * 5 + i] = swap;
+                }
+            }
+            for (int row = column + 1; row < 4; row++) {
+                double factor = io_system[row * 5 + column] / io_system[column * 5 + column];
+                for (int i = column; i < 5; i++) {
+                    io_system[row * 5 + i] -= factor * io_system[column * 5 + i];
+                }
+            }
+        }
+
+        for (int row = 3; row >= 0; row--) {
+            double value = io_system[row * 5 + 4];
+            for (int i = row + 1; i < 4; i++) {
+                value -= io_system[row * 5 + i] * o_solution[i];
+            }
+            o_solution[row] = value / io_system[row * 5 + row];
+        }
+        return true;
+    }
+
+    //The polygon is convex, so the point is inside when it is on the same side of every edge, whatever the winding
+    private boolean IsInsideFace(int i_face, float i_u, float i_v) {
+        int first = m_faceOffsets[i_face];
+        int size = m_faceOffsets[i_face + 1] - first;
+        boolean hasPositive = false;
+        boolean hasNegative = false;
+        for (int i = 0; i < size; i++) {
+            int j = (i + 1) % size;
+            float au = m_facePolygons[(first + i) * 2];
+            float av = m_facePolygons[(first + i) * 2 + 1];
+            float bu = m_facePolygons[(first + j) * 2];
+            float bv = m_facePolygons[(first + j) * 2 + 1];
+
+            float side = (bu - au) * (i_v - av) - (bv - av) * (i_u - au);
+            float scale = Math.abs(bu - au) + Math.abs(bv - av);
+            if (side > INSIDE_TOLERANCE * scale * scale) hasPositive = true;
+            if (side < -INSIDE_TOLERANCE * scale * scale) hasNegative = true;
+        }
+        return !(hasPositive && hasNegative);
+    }
+}
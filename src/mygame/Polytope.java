@@ -0,0 +1,552 @@
+package mygame;
+
+import java.util.*;
+
+/*
+    The vertices, polygonal faces and 3 dimensional cells of a polytope.
+    A cube is the 3 dimensional hypercube and is made of 6 square faces, a tesseract is the 4 dimensional hypercube
+    and is made of 8 cubic cells. The other regular 4 dimensional polytopes are built the same way from other cells:
+        5-cell - 5 tetrahedra
+        16-cell - 16 tetrahedra
+        24-cell - 24 octahedra
+        120-cell - 120 dodecahedra
+        600-cell - 600 tetrahedra
+
+    The topology is computed once when the polytope is generated. Everything afterwards, including filling the buffers
+    of a PolytopeMesh, writes into arrays preallocated from the counts below.
+ */
+public class Polytope {
+
+    private static final double GOLDEN_RATIO = (1.0 + Math.sqrt(5.0)) / 2.0;
+    private static final double EPSILON = 1e-6;
+
+    //A 12-cube already has 4096 vertices and 67584 square faces, every dimension more doubles the vertices
+    private static final int MAX_HYPERCUBE_DIMENSION = 12;
+
+    private int m_dimension;
+    private float[] m_vertices; //m_dimension floats per vertex
+
+    //The vertices of face f are m_faceVertices[m_faceOffsets[f]] to m_faceVertices[m_faceOffsets[f + 1] - 1],
+    //in order around the polygon
+    private int[] m_faceOffsets;
+    private int[] m_faceVertices;
+
+    //The faces of cell c are m_cellFaces[m_cellOffsets[c]] to m_cellFaces[m_cellOffsets[c + 1] - 1]
+    private int[] m_cellOffsets;
+    private int[] m_cellFaces;
+
+    private Polytope(int i_dimension, double[][] i_vertices, List<int[]> i_faces, List<int[]> i_cells) {
+        m_dimension = i_dimension;
+
+        m_vertices = new float[i_vertices.length * i_dimension];
+        for (int v = 0; v < i_vertices.length; v++) {
+            for (int d = 0; d < i_dimension; d++) {
+                m_vertices[v * i_dimension + d] = (float) i_vertices[v][d];
+            }
+        }
+
+        m_faceOffsets = new int[i_faces.size() + 1];
+        m_faceVertices = Flatten(i_faces, m_faceOffsets);
+        m_cellOffsets = new int[i_cells.size() + 1];
+        m_cellFaces = Flatten(i_cells, m_cellOffsets);
+    }
+
+    //A polytope with the given topology, for meshes like the Tesseract that keep their own copy of it
+    static Polytope FromCells(int i_dimension, double[][] i_vertices, List<int[]> i_faces, List<int[]> i_cells) {
+        return new Polytope(i_dimension, i_vertices, i_faces, i_cells);
+    }
+
+    private static int[] Flatten(List<int[]> i_lists, int[] o_offsets) {
+        int total = 0;
+        for (int i = 0; i < i_lists.size(); i++) {
+            o_offsets[i] = total;
+            total += i_lists.get(i).length;
+        }
+        o_offsets[i_lists.size()] = total;
+
+        int[] flat = new int[total];
+        for (int i = 0; i < i_lists.size(); i++) {
+            System.arraycopy(i_lists.get(i), 0, flat, o_offsets[i], i_lists.get(i).length);
+        }
+        return flat;
+    }
+
+    public int GetDimension() {
+        return m_dimension;
+    }
+
+    public int GetVertexCount() {
+        return m_vertices.length / m_dimension;
+    }
+
+    public int GetFaceCount() {
+        return m_faceOffsets.length - 1;
+    }
+
+    public int GetCellCount() {
+        return m_cellOffsets.length - 1;
+    }
+
+    public float GetCoordinate(int i_vertex, int i_axis) {
+        return m_vertices[i_vertex * m_dimension + i_axis];
+    }
+
+    public int GetFaceSize(int i_face) {
+        return m_faceOffsets[i_face + 1] - m_faceOffsets[i_face];
+    }
+
+    public int GetFaceVertex(int i_face, int i_index) {
+        return m_faceVertices[m_faceOffsets[i_face] + i_index];
+    }
+
+    public int GetCellFaceCount(int i_cell) {
+        return m_cellOffsets[i_cell + 1] - m_cellOffsets[i_cell];
+    }
+
+    public int GetCellFace(int i_cell, int i_index) {
+        return m_cellFaces[m_cellOffsets[i_cell] + i_index];
+    }
+
+    //Each cell draws its own copy of its faces so it can be coloured on its own, like the cubes of the Tesseract
+    public int GetRenderVertexCount() {
+        int count = 0;
+        for (int c = 0; c < GetCellCount(); c++) {
+            for (int f = 0; f < GetCellFaceCount(c); f++) {
+                count += GetFaceSize(GetCellFace(c, f));
+            }
+        }
+        return count;
+    }
+
+    //Every face with n vertices is drawn as a fan of n - 2 triangles
+    public int GetRenderIndexCount() {
+        int count = 0;
+        for (int c = 0; c < GetCellCount(); c++) {
+            for (int f = 0; f < GetCellFaceCount(c); f++) {
+                count += (GetFaceSize(GetCellFace(c, f)) - 2) * 3;
+            }
+        }
+        return count;
+    }
+
+    //Writes the vertices padded or cut to 4 coordinates as packed XYZW floats
+    public void WriteVertices4D(float[] o_dst, int i_offset) {
+        for (int v = 0; v < GetVertexCount(); v++) {
+            for (int d = 0; d < 4; d++) {
+                o_dst[i_offset + v * 4 + d] = d < m_dimension ? m_vertices[v * m_dimension + d] : 0.f;
+            }
+        }
+    }
+
+    //Writes, for every render vertex, the polytope vertex it is gathered from and the cell it belongs to
+    public void WriteRenderVertices(int[] o_vertices, int[] o_cells) {
+        int i = 0;
+        for (int c = 0; c < GetCellCount(); c++) {
+            for (int f = 0; f < GetCellFaceCount(c); f++) {
+                int face = GetCellFace(c, f);
+                for (int v = 0; v < GetFaceSize(face); v++) {
+                    o_vertices[i] = GetFaceVertex(face, v);
+                    o_cells[i] = c;
+                    i++;
+                }
+            }
+        }
+    }
+
+    //Writes the triangle indices matching the render vertices of WriteRenderVertices
+    public void WriteRenderIndices(int[] o_indices) {
+        int i = 0;
+        int first = 0;
+        for (int c = 0; c < GetCellCount(); c++) {
+            for (int f = 0; f < GetCellFaceCount(c); f++) {
+                int size = GetFaceSize(GetCellFace(c, f));
+                for (int t = 1; t < size - 1; t++) {
+                    o_indices[i++] = first;
+                    o_indices[i++] = first + t;
+                    o_indices[i++] = first + t + 1;
+                }
+                first += size;
+            }
+        }
+    }
+
+    //The hypercube of any dimension with coordinates -i_halfSize and i_halfSize
+    //Vertex v has its coordinate d positive when bit d of v is set
+    public static Polytope Hypercube(int i_dimension, float i_halfSize) {
+        if (i_dimension < 2 || i_dimension > MAX_HYPERCUBE_DIMENSION) {
+            throw new IllegalArgumentException("Hypercubes are generated for 2 to " + MAX_HYPERCUBE_DIMENSION
+                    + " dimensions, not " + i_dimension);
+        }
+
+        int vertexCount = 1 << i_dimension;
+        double[][] vertices = new double[vertexCount][i_dimension];
+        for (int v = 0; v < vertexCount; v++) {
+            for (int d = 0; d < i_dimension; d++) {
+                vertices[v][d] = ((v >> d) & 1) == 1 ? i_halfSize : -i_halfSize;
+            }
+        }
+
+        //A square face spans two axes, it is found from its lowest vertex which has both of those bits cleared
+        List<int[]> faces = new ArrayList<int[]>();
+        Map<Long, Integer> faceIds = new HashMap<Long, Integer>();
+        for (int a = 0; a < i_dimension; a++) {
+            for (int b = a + 1; b < i_dimension; b++) {
+                for (int v = 0; v < vertexCount; v++) {
+                    if ((v & (1 << a)) != 0 || (v & (1 << b)) != 0) continue;
+
+                    faceIds.put(SquareKey(a, b, v), faces.size());
+                    faces.add(new int[]{v, v | (1 << a), v | (1 << a) | (1 << b), v | (1 << b)});
+                }
+            }
+        }
+
+        //A cubic cell spans three axes and holds the two opposite squares of each pair of those axes
+        List<int[]> cells = new ArrayList<int[]>();
+        if (i_dimension == 2) {
+            cells.add(new int[]{0});
+        }
+        for (int a = 0; a < i_dimension; a++) {
+            for (int b = a + 1; b < i_dimension; b++) {
+                for (int c = b + 1; c < i_dimension; c++) {
+                    for (int v = 0; v < vertexCount; v++) {
+                        if ((v & ((1 << a) | (1 << b) | (1 << c))) != 0) continue;
+
+                        cells.add(new int[]{
+                            faceIds.get(SquareKey(a, b, v)), faceIds.get(SquareKey(a, b, v | (1 << c))),
+                            faceIds.get(SquareKey(a, c, v)), faceIds.get(SquareKey(a, c, v | (1 << b))),
+                            faceIds.get(SquareKey(b, c, v)), faceIds.get(SquareKey(b, c, v | (1 << a)))
+                        });
+                    }
+                }
+            }
+        }
+
+        return new Polytope(i_dimension, vertices, faces, cells);
+    }
+
+    private static long SquareKey(int i_a, int i_b, int i_vertex) {
+        return ((long) i_vertex << 10) | (i_a << 5) | i_b;
+    }
+
+    //The 4D simplex, every cell is opposite one of the 5 vertices
+    public static Polytope FiveCell() {
+        double[][] vertices = {
+            {1.0 / Math.sqrt(10.0), 1.0 / Math.sqrt(6.0), 1.0 / Math.sqrt(3.0), 1.0},
+            {1.0 / Math.sqrt(10.0), 1.0 / Math.sqrt(6.0), 1.0 / Math.sqrt(3.0), -1.0},
+            {1.0 / Math.sqrt(10.0), 1.0 / Math.sqrt(6.0), -2.0 / Math.sqrt(3.0), 0.0},
+            {1.0 / Math.sqrt(10.0), -Math.sqrt(1.5), 0.0, 0.0},
+            {-2.0 * Math.sqrt(0.4), 0.0, 0.0, 0.0}
+        };
+
+        double[][] normals = new double[5][4];
+        for (int v = 0; v < 5; v++) {
+            for (int d = 0; d < 4; d++) {
+                normals[v][d] = -vertices[v][d];
+            }
+        }
+        return FromCellNormals(vertices, normals);
+    }
+
+    //The 4D cross polytope, the vertices are the unit axes and the cells face the corners of a tesseract
+    public static Polytope SixteenCell() {
+        double[][] vertices = new double[8][4];
+        for (int d = 0; d < 4; d++) {
+            vertices[d * 2][d] = 1.0;
+            vertices[d * 2 + 1][d] = -1.0;
+        }
+        return FromCellNormals(vertices, TesseractCorners(1.0));
+    }
+
+    //The 24-cell has the permutations of (+-1, +-1, 0, 0) as vertices, its cells face the vertices of a 16-cell
+    //and of a tesseract
+    public static Polytope TwentyFourCell() {
+        List<double[]> vertices = new ArrayList<double[]>();
+        for (int a = 0; a < 4; a++) {
+            for (int b = a + 1; b < 4; b++) {
+                for (int signs = 0; signs < 4; signs++) {
+                    double[] vertex = new double[4];
+                    vertex[a] = (signs & 1) == 0 ? 1.0 : -1.0;
+                    vertex[b] = (signs & 2) == 0 ? 1.0 : -1.0;
+                    vertices.add(vertex);
+                }
+            }
+        }
+
+        double[][] normals = new double[24][];
+        for (int d = 0; d < 4; d++) {
+            normals[d * 2] = new double[4];
+            normals[d * 2][d] = 1.0;
+            normals[d * 2 + 1] = new double[4];
+            normals[d * 2 + 1][d] = -1.0;
+        }
+        System.arraycopy(TesseractCorners(0.5), 0, normals, 8, 16);
+
+        return FromCellNormals(vertices.toArray(new double[vertices.size()][]), normals);
+    }
+
+    //The 600-cell has 120 vertices on the unit sphere, every 4 mutually adjacent vertices form one of its tetrahedra
+    public static Polytope SixHundredCell() {
+        double[][] vertices = SixHundredCellVertices();
+        return FromCellVertices(vertices, FindTetrahedra(vertices));
+    }
+
+    //The 120-cell is the dual of the 600-cell, its vertices are the centres of the 600 tetrahedra and
+    //its dodecahedral cells face the 120 vertices of the 600-cell
+    public static Polytope OneHundredTwentyCell() {
+        double[][] dualVertices = SixHundredCellVertices();
+        List<int[]> tetrahedra = FindTetrahedra(dualVertices);
+
+        double[][] vertices = new double[tetrahedra.size()][4];
+        for (int t = 0; t < tetrahedra.size(); t++) {
+            double length = 0.0;
+            for (int d = 0; d < 4; d++) {
+                for (int v : tetrahedra.get(t)) {
+                    vertices[t][d] += dualVertices[v][d];
+                }
+                length += vertices[t][d] * vertices[t][d];
+            }
+            for (int d = 0; d < 4; d++) {
+                vertices[t][d] /= Math.sqrt(length);
+            }
+        }
+        return FromCellNormals(vertices, dualVertices);
+    }
+
+    private static double[][] TesseractCorners(double i_halfSize) {
+        double[][] corners = new double[16][4];
+        for (int v = 0; v < 16; v++) {
+            for (int d = 0; d < 4; d++) {
+                corners[v][d] = ((v >> d) & 1) == 1 ? i_halfSize : -i_halfSize;
+            }
+        }
+        return corners;
+    }
+
+    private static double[][] SixHundredCellVertices() {
+        List<double[]> vertices = new ArrayList<double[]>();
+
+        //The 16 corners of a tesseract and the 8 unit axes
+        for (double[] corner : TesseractCorners(0.5)) {
+            vertices.add(corner);
+        }
+        for (int d = 0; d < 4; d++) {
+            double[] positive = new double[4];
+            positive[d] = 1.0;
+            vertices.add(positive);
+            double[] negative = new double[4];
+            negative[d] = -1.0;
+            vertices.add(negative);
+        }
+
+        //The even permutations of (+-phi, +-1, +-1/phi, 0) / 2
+        double[] values = {GOLDEN_RATIO / 2.0, 0.5, 0.5 / GOLDEN_RATIO, 0.0};
+        int[][] evenPermutations = {
+            {0, 1, 2, 3}, {0, 2, 3, 1}, {0, 3, 1, 2}, {1, 0, 3, 2}, {1, 2, 0, 3}, {1, 3, 2, 0},
+            {2, 0, 1, 3}, {2, 1, 3, 0}, {2, 3, 0, 1}, {3, 0, 2, 1}, {3, 1, 0, 2}, {3, 2, 1, 0}
+        };
+        for (int[] permutation : evenPermutations) {
+            for (int signs = 0; signs < 8; signs++) {
+                double[] vertex = new double[4];
+                for (int i = 0; i < 3; i++) {
+                    vertex[permutation[i]] = ((signs >> i) & 1) == 1 ? -values[i] : values[i];
+                }
+                vertices.add(vertex);
+            }
+        }
+
+        return vertices.toArray(new double[vertices.size()][]);
+    }
+
+    //Finds every set of 4 vertices that are all one edge length apart
+    private static List<int[]> FindTetrahedra(double[][] i_vertices) {
+        double edge = Double.MAX_VALUE;
+        for (int v = 1; v < i_vertices.length; v++) {
+            edge = Math.min(edge, DistanceSquared(i_vertices[0], i_vertices[v]));
+        }
+
+        int count = i_vertices.length;
+        boolean[][] adjacent = new boolean[count][count];
+        for (int a = 0; a < count; a++) {
+            for (int b = 0; b < count; b++) {
+                adjacent[a][b] = a != b && Math.abs(DistanceSquared(i_vertices[a], i_vertices[b]) - edge) < EPSILON;
+            }
+        }
+
+        List<int[]> tetrahedra = new ArrayList<int[]>();
+        for (int a = 0; a < count; a++) {
+            for (int b = a + 1; b < count; b++) {
+                if (!adjacent[a][b]) continue;
+                for (int c = b + 1; c < count; c++) {
+                    if (!adjacent[a][c] || !adjacent[b][c]) continue;
+                    for (int d = c + 1; d < count; d++) {
+                        if (adjacent[a][d] && adjacent[b][d] && adjacent[c][d]) {
+                            tetrahedra.add(new int[]{a, b, c, d});
+                        }
+                    }
+                }
+            }
+        }
+        return tetrahedra;
+    }
+
+    private static double DistanceSquared(double[] i_a, double[] i_b) {
+        double sum = 0.0;
+        for (int d = 0; d < i_a.length; d++) {
+            sum += (i_a[d] - i_b[d]) * (i_a[d] - i_b[d]);
+        }
+        return sum;
+    }
+
+    //Each cell of a convex polytope is made of the vertices furthest along its outward normal
+    private static Polytope FromCellNormals(double[][] i_vertices, double[][] i_normals) {
+        List<int[]> cells = new ArrayList<int[]>();
+        for (double[] normal : i_normals) {
+            double max = -Double.MAX_VALUE;
+            for (double[] vertex : i_vertices) {
+                max = Math.max(max, Dot(vertex, normal));
+            }
+
+            List<Integer> cell = new ArrayList<Integer>();
+            for (int v = 0; v < i_vertices.length; v++) {
+                if (Dot(i_vertices[v], normal) > max - EPSILON * 10.0) {
+                    cell.add(v);
+                }
+            }
+
+            int[] cellVertices = new int[cell.size()];
+            for (int i = 0; i < cellVertices.length; i++) {
+                cellVertices[i] = cell.get(i);
+            }
+            cells.add(cellVertices);
+        }
+        return FromCellVertices(i_vertices, cells);
+    }
+
+    //Two neighbouring cells share exactly one face, made of the vertices they have in common
+    private static Polytope FromCellVertices(double[][] i_vertices, List<int[]> i_cells) {
+        int cellCount = i_cells.size();
+
+        List<List<Integer>> vertexCells = new ArrayList<List<Integer>>();
+        for (int v = 0; v < i_vertices.length; v++) {
+            vertexCells.add(new ArrayList<Integer>());
+        }
+        for (int c = 0; c < cellCount; c++) {
+            for (int v : i_cells.get(c)) {
+                vertexCells.get(v).add(c);
+            }
+        }
+
+        List<int[]> faces = new ArrayList<int[]>();
+        List<List<Integer>> cellFaces = new ArrayList<List<Integer>>();
+        for (int c = 0; c < cellCount; c++) {
+            cellFaces.add(new ArrayList<Integer>());
+        }
+
+        int[] shared = new int[cellCount];
+        for (int c = 0; c < cellCount; c++) {
+            Arrays.fill(shared, 0);
+            for (int v : i_cells.get(c)) {
+                for (int other : vertexCells.get(v)) {
+                    shared[other]++;
+                }
+            }
+
+            for (int other = c + 1; other < cellCount; other++) {
+                if (shared[other] < 3) continue;
+
+                int[] face = new int[shared[other]];
+                int i = 0;
+                for (int v : i_cells.get(c)) {
+                    if (vertexCells.get(v).contains(other)) {
+                        face[i++] = v;
+                    }
+                }
+                OrderAroundCentre(i_vertices, face);
+
+                cellFaces.get(c).add(faces.size());
+                cellFaces.get(other).add(faces.size());
+                faces.add(face);
+            }
+        }
+
+        List<int[]> cells = new ArrayList<int[]>();
+        for (List<Integer> cell : cellFaces) {
+            int[] cellFaceIds = new int[cell.size()];
+            for (int i = 0; i < cellFaceIds.length; i++) {
+                cellFaceIds[i] = cell.get(i);
+            }
+            cells.add(cellFaceIds);
+        }
+
+        return new Polytope(4, i_vertices, faces, cells);
+    }
+
+    //Sorts the vertices of a planar convex polygon by their angle around its centre
+    private static void OrderAroundCentre(double[][] i_vertices, int[] io_face) {
+        int size = io_face.length;
+        double[] centre = new double[4];
+        for (int v : io_face) {
+            for (int d = 0; d < 4; d++) {
+                centre[d] += i_vertices[v][d] / size;
+            }
+        }
+
+        //Two orthonormal directions spanning the plane of the polygon
+        double[] u = Normalize(Subtract(i_vertices[io_face[0]], centre));
+        double[] w = null;
+        for (int i = 1; i < size && w == null; i++) {
+            double[] candidate = Subtract(i_vertices[io_face[i]], centre);
+            double along = Dot(candidate, u);
+            for (int d = 0; d < 4; d++) {
+                candidate[d] -= along * u[d];
+            }
+            if (Dot(candidate, candidate) > EPSILON) {
+                w = Normalize(candidate);
+            }
+        }
+
+        final double[] angles = new double[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            double[] offset = Subtract(i_vertices[io_face[i]], centre);
+            angles[i] = Math.atan2(Dot(offset, w), Dot(offset, u));
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i_a, Integer i_b) {
+                return Double.compare(angles[i_a], angles[i_b]);
+            }
+        });
+
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = io_face[order[i]];
+        }
+        System.arraycopy(sorted, 0, io_face, 0, size);
+    }
+
+    private static double Dot(double[] i_a, double[] i_b) {
+        double sum = 0.0;
+        for (int d = 0; d < i_a.length; d++) {
+            sum += i_a[d] * i_b[d];
+        }
+        return sum;
+    }
+
+    private static double[] Subtract(double[] i_a, double[] i_b) {
+        double[] result = new double[i_a.length];
+        for (int d = 0; d < i_a.length; d++) {
+            result[d] = i_a[d] - i_b[d];
+        }
+        return result;
+    }
+
+    private static double[] Normalize(double[] i_vector) {
+        double length = Math.sqrt(Dot(i_vector, i_vector));
+        for (int d = 0; d < i_vector.length; d++) {
+            i_vector[d] /= length;
+        }
+        return i_vector;
+    }
+}
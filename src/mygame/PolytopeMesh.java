@@ -0,0 +1,251 @@
+package mygame;
+
+import java.nio.FloatBuffer;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.VertexBuffer.Usage;
+import com.jme3.util.BufferUtils;
+
+/*
+    Renders any Polytope the same way the Tesseract renders the hypercube.
+    Only the unique vertices are rotated and projected, the render vertices of every cell are then gathered from them
+    into a position buffer that is allocated once and streamed. Polytopes with more than 4 dimensions are seen through
+    their first 4 coordinates.
+ */
+public class PolytopeMesh extends Mesh implements ChangeTracked {
+
+    private Polytope m_polytope;
+    private int m_vertexCount;
+    private int m_renderVertexCount;
+
+    //Structure-of-arrays so the projection kernel can process several vertices at once
+    private float[] m_restX, m_restY, m_restZ, m_restW;
+    private float[] m_projectedX, m_projectedY, m_projectedZ;
+    private int[] m_renderVertices; //The polytope vertex each render vertex is gathered from
+
+    private ProjectionKernel m_kernel = ProjectionKernel.Get();
+    private float[] m_matrix = new float[16];
+    private float[] m_renderPositions; //XYZ per render vertex, uploaded with a single bulk put
+    private FloatBuffer m_positions;
+    private VertexBuffer m_positionBuffer = new VertexBuffer(Type.Position);
+
+    private Projection4D m_projection;
+    private Orientation4D m_orientation = new Orientation4D();
+
+    private int m_changeCount = 0;
+
+    //The box around the projected unique vertices, or a sphere containing every orientation, see SetInvariantBound()
+    private boolean b_hasInvariantBound = false;
+    private BoundingBox m_vertexBound = new BoundingBox();
+
+    public PolytopeMesh(Polytope i_polytope) {
+        this(i_polytope, 50.f);
+    }
+
+    public PolytopeMesh(Polytope i_polytope, float i_lightOnW) {
+        m_polytope = i_polytope;
+        m_projection = new Projection4D(i_lightOnW);
+        m_vertexCount = i_polytope.GetVertexCount();
+        m_renderVertexCount = i_polytope.GetRenderVertexCount();
+
+        float[] vertices4D = new float[m_vertexCount * 4];
+        i_polytope.WriteVertices4D(vertices4D, 0);
+        m_restX = new float[m_vertexCount];
+        m_restY = new float[m_vertexCount];
+        m_restZ = new float[m_vertexCount];
+        m_restW = new float[m_vertexCount];
+        for (int i = 0; i < m_vertexCount; i++) {
+            m_restX[i] = vertices4D[i * 4];
+            m_restY[i] = vertices4D[i * 4 + 1];
+            m_restZ[i] = vertices4D[i * 4 + 2];
+            m_restW[i] = vertices4D[i * 4 + 3];
+        }
+        m_projectedX = new float[m_vertexCount];
+        m_projectedY = new float[m_vertexCount];
+        m_projectedZ = new float[m_vertexCount];
+
+        m_renderVertices = new int[m_renderVertexCount];
+        int[] renderCells = new int[m_renderVertexCount];
+        i_polytope.WriteRenderVertices(m_renderVertices, renderCells);
+
+        int[] indices = new int[i_polytope.GetRenderIndexCount()];
+        i_polytope.WriteRenderIndices(indices);
+        this.setBuffer(Type.Index, 3, BufferUtils.createIntBuffer(indices));
+
+        FloatBuffer colors = BufferUtils.createFloatBuffer(m_renderVertexCount * 4);
+        ColorRGBA color = new ColorRGBA();
+        for (int i = 0; i < m_renderVertexCount; i++) {
+            CellColor(renderCells[i], i_polytope.GetCellCount(), color);
+            colors.put(color.r).put(color.g).put(color.b).put(color.a);
+        }
+        colors.flip();
+        this.setBuffer(Type.Color, 4, colors);
+
+        //The cell of every render vertex, read by the materials that colour the cells from a CellPalette
+        FloatBuffer cellIds = BufferUtils.createFloatBuffer(m_renderVertexCount);
+        for (int i = 0; i < m_renderVertexCount; i++) {
+            cellIds.put(renderCells[i]);
+        }
+        cellIds.flip();
+        this.setBuffer(Type.TexCoord2, 1, cellIds);
+
+        m_renderPositions = new float[m_renderVertexCount * 3];
+        m_positions = BufferUtils.createFloatBuffer(m_renderVertexCount * 3);
+        m_positionBuffer.setupData(Usage.Stream, 3, Format.Float, m_positions);
+        this.setBuffer(m_positionBuffer);
+
+        Project();
+    }
+
+    //Spreads the cells evenly around the colour wheel
+    static void CellColor(int i_cell, int i_cellCount, ColorRGBA o_color) {
+        float hue = (float) i_cell / i_cellCount * 6.f;
+        int sector = (int) hue;
+        float f = hue - sector;
+        switch (sector % 6) {
+            case 0: o_color.set(1.f, f, 0.f, 1.f); break;
+            case 1: o_color.set(1.f - f, 1.f, 0.f, 1.f); break;
+            case 2: o_color.set(0.f, 1.f, f, 1.f); break;
+            case 3: o_color.set(0.f, 1.f - f, 1.f, 1.f); break;
+            case 4: o_color.set(f, 0.f, 1.f, 1.f); break;
+            default: o_color.set(1.f, 0.f, 1.f - f, 1.f); break;
+        }
+    }
+
+    public Polytope GetPolytope() {
+        return m_polytope;
+    }
+
+    //Project the points from 4D space into 3D space and update the mesh
+    //The rotation is folded into the projection, both run in one pass of the kernel
+    private void Project() {
+        long start = StageProfiler.Begin(StageProfiler.Stage.Project);
+        m_orientation.Get().Get(m_matrix, 0);
+        m_kernel.RotateProject(m_matrix, 0, m_projection.GetKernelLightOnW(),
+                m_restX, m_restY, m_restZ, m_restW, 0, m_vertexCount,
+                m_projectedX, m_projectedY, m_projectedZ, 0);
+        StageProfiler.End(StageProfiler.Stage.Project, start);
+
+        start = StageProfiler.Begin(StageProfiler.Stage.Upload);
+        for (int i = 0; i < m_renderVertexCount; i++) {
+            int v = m_renderVertices[i];
+            m_renderPositions[i * 3] = m_projectedX[v];
+            m_renderPositions[i * 3 + 1] = m_projectedY[v];
+            m_renderPositions[i * 3 + 2] = m_projectedZ[v];
+        }
+        m_positions.clear();
+        m_positions.put(m_renderPositions);
+        m_positions.flip();
+
+        m_positionBuffer.updateData(m_positions);
+        m_changeCount++;
+        StageProfiler.End(StageProfiler.Stage.Upload, start);
+
+        if (b_hasInvariantBound) return;
+
+        start = StageProfiler.Begin(StageProfiler.Stage.UpdateBound);
+        this.updateBound();
+        StageProfiler.End(StageProfiler.Stage.UpdateBound, start);
+    }
+
+    //Every render vertex is a copy of a unique vertex, which are several times fewer
+    @Override
+    public void updateBound() {
+        if (b_hasInvariantBound) {
+            UpdateInvariantBound();
+            return;
+        }
+
+        float minX = m_projectedX[0], minY = m_projectedY[0], minZ = m_projectedZ[0];
+        float maxX = minX, maxY = minY, maxZ = minZ;
+        for (int i = 1; i < m_vertexCount; i++) {
+            minX = Math.min(minX, m_projectedX[i]); maxX = Math.max(maxX, m_projectedX[i]);
+            minY = Math.min(minY, m_projectedY[i]); maxY = Math.max(maxY, m_projectedY[i]);
+            minZ = Math.min(minZ, m_projectedZ[i]); maxZ = Math.max(maxZ, m_projectedZ[i]);
+        }
+        m_vertexBound.setCenter((minX + maxX) * 0.5f, (minY + maxY) * 0.5f, (minZ + maxZ) * 0.5f);
+        m_vertexBound.setXExtent((maxX - minX) * 0.5f);
+        m_vertexBound.setYExtent((maxY - minY) * 0.5f);
+        m_vertexBound.setZExtent((maxZ - minZ) * 0.5f);
+        this.setBound(m_vertexBound);
+    }
+
+    //Trades a looser bound for one that stays the same while the polytope rotates, like Tesseract.SetInvariantBound()
+    public void SetInvariantBound(boolean i_hasInvariantBound) {
+        if (i_hasInvariantBound == b_hasInvariantBound) return;
+
+        b_hasInvariantBound = i_hasInvariantBound;
+        this.updateBound();
+    }
+
+    public boolean HasInvariantBound() {
+        return b_hasInvariantBound;
+    }
+
+    private void UpdateInvariantBound() {
+        this.setBound(m_projection.InvariantBound(0.f, 0.f, GetRestRadius()));
+    }
+
+    //Radius of the 4D sphere around the origin that contains the polytope in any orientation
+    public float GetRestRadius() {
+        float radius = 0.f;
+        for (int i = 0; i < m_vertexCount; i++) {
+            float x = m_restX[i];
+            float y = m_restY[i];
+            float z = m_restZ[i];
+            float w = m_restW[i];
+            radius = Math.max(radius, FastMath.sqrt(x * x + y * y + z * z + w * w));
+        }
+        return radius;
+    }
+
+    public void Rotate(float i_angle, Tesseract.RotationalPlane i_rotationPlane) {
+        if (!m_orientation.Rotate(i_angle, i_rotationPlane)) return;
+
+        Project();
+    }
+
+    public void Rotate(Matrix4D i_rotation) {
+        m_orientation.Rotate(i_rotation);
+
+        Project();
+    }
+
+    //Read only, change it with Rotate() or SetOrientation()
+    public Matrix4D GetOrientation() {
+        return m_orientation.Get();
+    }
+
+    public void SetOrientation(Matrix4D i_orientation) {
+        m_orientation.Set(i_orientation);
+
+        Project();
+    }
+
+    public void ToggleProjection() {
+        m_projection.Toggle();
+        if (b_hasInvariantBound) {
+            UpdateInvariantBound();
+        }
+        Project();
+    }
+
+    @Override
+    public int GetChangeCount() {
+        return m_changeCount;
+    }
+
+    public boolean IsStereographicProjection() {
+        return m_projection.IsStereographic();
+    }
+
+    public float GetLightOnW() {
+        return m_projection.GetLightOnW();
+    }
+}
@@ -0,0 +1,169 @@
+package mygame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+import com.jme3.profile.AppProfiler;
+import com.jme3.profile.AppStep;
+import com.jme3.profile.SpStep;
+import com.jme3.profile.VpStep;
+import com.jme3.renderer.ViewPort;
+import com.jme3.renderer.queue.RenderQueue.Bucket;
+
+/*
+    Frame profiler for the application, set with Application.setAppProfiler().
+    It measures every frame, and with the StageProfiler enabled it splits out the time of the 4D stages.
+
+    Every report interval the summary is written to the log (logcat on Android) and kept for an overlay.
+    Listeners are notified at the end of every frame. On desktop JVMs with Flight Recorder,
+    JfrFrameListener is added automatically when it is on the classpath, so the frames show up as JFR events.
+ */
+public class Profiler4D implements AppProfiler {
+
+    private static final Logger logger = Logger.getLogger(Profiler4D.class.getName());
+    private static final String JFR_LISTENER = "mygame.JfrFrameListener";
+
+    public interface Listener {
+        void FrameStarted();
+
+        //i_stageNanos holds the estimated time of every StageProfiler.Stage during the frame
+        void FrameEnded(long i_frameNanos, long[] i_stageNanos);
+    }
+
+    private final long m_reportNanos;
+    private final List<Listener> m_listeners = new ArrayList<Listener>();
+    private final double m_callNanos;
+
+    private final LatencyHistogram m_frames = new LatencyHistogram();
+    private final StageProfiler.Stage[] m_stages = StageProfiler.Stage.values();
+    private final long[] m_stageNanos = new long[m_stages.length];
+    private final long[] m_callsAtFrameStart = new long[m_stages.length];
+    private long m_frameStart = 0;
+    private long m_reportStart = 0;
+    private String m_summary = "";
+    private int m_reportCount = 0;
+
+    public Profiler4D() {
+        this(5.f);
+    }
+
+    public Profiler4D(float i_reportSeconds) {
+        m_reportNanos = (long) (i_reportSeconds * 1e9);
+        m_callNanos = StageProfiler.MeasureCallNanos();
+
+        try {
+            m_listeners.add((Listener) Class.forName(JFR_LISTENER).newInstance());
+        } catch (Exception e) {
+            //Not on the classpath
+        } catch (LinkageError e) {
+            //On the classpath, but the JVM has no Flight Recorder
+        }
+    }
+
+    public void AddListener(Listener i_listener) {
+        m_listeners.add(i_listener);
+    }
+
+    public void RemoveListener(Listener i_listener) {
+        m_listeners.remove(i_listener);
+    }
+
+    //The last report, empty until the first report interval has passed
+    public String GetSummary() {
+        return m_summary;
+    }
+
+    //Increases with every report, so an overlay only has to update its text when this changes
+    public int GetReportCount() {
+        return m_reportCount;
+    }
+
+    @Override
+    public void appStep(AppStep i_step) {
+        if (i_step == AppStep.BeginFrame) {
+            BeginFrame();
+        } else if (i_step == AppStep.EndFrame) {
+            EndFrame();
+        }
+    }
+
+    @Override
+    public void vpStep(VpStep i_step, ViewPort i_viewPort, Bucket i_bucket) {
+    }
+
+    @Override
+    public void spStep(SpStep i_step, String... i_additionalInfo) {
+    }
+
+    private void BeginFrame() {
+        m_frameStart = System.nanoTime();
+        if (m_reportStart == 0) {
+            m_reportStart = m_frameStart;
+            StageProfiler.Reset();
+        }
+
+        for (int s = 0; s < m_stages.length; s++) {
+            m_callsAtFrameStart[s] = StageProfiler.GetCalls(m_stages[s]);
+        }
+        for (int i = 0; i < m_listeners.size(); i++) {
+            m_listeners.get(i).FrameStarted();
+        }
+    }
+
+    private void EndFrame() {
+        if (m_frameStart == 0) return;
+
+        long now = System.nanoTime();
+        long frameNanos = now - m_frameStart;
+        m_frames.Record(frameNanos);
+
+        //Only a fraction of the calls is timed, a frame is charged its calls at the mean duration of the stage
+        for (int s = 0; s < m_stages.length; s++) {
+            long calls = StageProfiler.GetCalls(m_stages[s]) - m_callsAtFrameStart[s];
+            m_stageNanos[s] = (long) (calls * StageProfiler.GetSamples(m_stages[s]).GetMeanNanos());
+        }
+        for (int i = 0; i < m_listeners.size(); i++) {
+            m_listeners.get(i).FrameEnded(frameNanos, m_stageNanos);
+        }
+
+        if (now - m_reportStart >= m_reportNanos) {
+            Report(now - m_reportStart);
+            m_frames.Reset();
+            StageProfiler.Reset();
+            m_reportStart = now;
+        }
+    }
+
+    private void Report(long i_elapsedNanos) {
+        StringBuilder summary = new StringBuilder();
+        long frames = m_frames.GetCount();
+        summary.append(String.format(Locale.ROOT, "%d frames, %.1f fps, frame p50 %.2f ms p95 %.2f ms p99 %.2f ms max %.2f ms",
+                frames, frames * 1e9 / i_elapsedNanos,
+                m_frames.GetPercentileNanos(50) / 1e6, m_frames.GetPercentileNanos(95) / 1e6,
+                m_frames.GetPercentileNanos(99) / 1e6, m_frames.GetMaxNanos() / 1e6));
+
+        long totalCalls = 0;
+        for (int s = 0; s < m_stages.length; s++) {
+            StageProfiler.Stage stage = m_stages[s];
+            long calls = StageProfiler.GetCalls(stage);
+            totalCalls += calls;
+            if (calls == 0) continue;
+
+            LatencyHistogram samples = StageProfiler.GetSamples(stage);
+            summary.append(String.format(Locale.ROOT, "\n%s: %.1f calls/frame, p50 %.2f us p99 %.2f us, %.2f%% of the frame time",
+                    stage, (double) calls / frames,
+                    samples.GetPercentileNanos(50) / 1e3, samples.GetPercentileNanos(99) / 1e3,
+                    100.0 * StageProfiler.GetEstimatedNanos(stage) / m_frames.GetTotalNanos()));
+        }
+        if (StageProfiler.IsEnabled()) {
+            summary.append(String.format(Locale.ROOT, "\nProfiler overhead: %.3f%% of the frame time",
+                    100.0 * totalCalls * m_callNanos / m_frames.GetTotalNanos()));
+        }
+
+        m_summary = summary.toString();
+        m_reportCount++;
+        logger.info(m_summary);
+    }
+}
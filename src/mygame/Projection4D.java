@@ -0,0 +1,54 @@
+package mygame;
+
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.math.Vector3f;
+
+/*
+    The projection from 4D space into 3D space shared by the Tesseract and the PolytopeMesh.
+    To keep the sense of depth from the 4th dimension it is stereographic by default, seen from a light on the W axis,
+    the shadow of a 4 dimensional shape is 3 dimensional similar to the 2 dimensional shadow of a 3 dimensional shape.
+    Toggling it drops the W coordinate instead.
+ */
+public class Projection4D {
+
+    private boolean b_isStereographic = true;
+    private final float m_lightOnW;
+
+    private final BoundingSphere m_invariantBound = new BoundingSphere(0.f, new Vector3f());
+
+    public Projection4D(float i_lightOnW) {
+        m_lightOnW = i_lightOnW;
+    }
+
+    public void Toggle() {
+        b_isStereographic = !b_isStereographic;
+    }
+
+    public boolean IsStereographic() {
+        return b_isStereographic;
+    }
+
+    public float GetLightOnW() {
+        return m_lightOnW;
+    }
+
+    //The light the ProjectionKernel projects from, 0 for the orthographic projection
+    public float GetKernelLightOnW() {
+        return b_isStereographic ? m_lightOnW : 0.f;
+    }
+
+    //The sphere around the origin that contains the projection of a 4D sphere in any orientation, the 4D sphere has
+    //the given radius and its centre is i_centerDistance away from the W axis at i_centerW.
+    //The stereographic projection scales a point at w by L / (L - w), which grows with w, so the farthest point of
+    //the 4D sphere is scaled by at most L / (L - i_centerW - i_radius).
+    //Once the 4D sphere reaches the light its projection is unbounded and so is the sphere, like in ViewCuller4D
+    public BoundingSphere InvariantBound(float i_centerDistance, float i_centerW, float i_radius) {
+        float radius = i_centerDistance + i_radius;
+        if (b_isStereographic) {
+            float distanceToLight = m_lightOnW - i_centerW - i_radius;
+            radius = distanceToLight > 0.f ? radius * m_lightOnW / distanceToLight : Float.POSITIVE_INFINITY;
+        }
+        m_invariantBound.setRadius(radius);
+        return m_invariantBound;
+    }
+}
@@ -0,0 +1,86 @@
+package mygame;
+
+/*
+    Rotates points of 4D space and projects them into 3D space, the per-vertex work behind every 4D mesh.
+    The points are stored structure-of-arrays style (all X, then all Y, ...) so an implementation can process
+    several points per instruction.
+
+    Get() picks the fastest kernel available at runtime. On desktop, with the simd classes on the classpath and the
+    JVM started with --add-modules jdk.incubator.vector, that is the Vector API kernel. Everywhere else, Android
+    included, it is the plain Java kernel below. -Dtesseract.simd=false forces the plain Java kernel.
+ */
+public abstract class ProjectionKernel {
+
+    private static final String VECTOR_KERNEL = "mygame.VectorProjectionKernel";
+
+    private static ProjectionKernel s_kernel;
+
+    public static synchronized ProjectionKernel Get() {
+        if (s_kernel == null) {
+            s_kernel = Load();
+        }
+        return s_kernel;
+    }
+
+    private static ProjectionKernel Load() {
+        if (!"false".equals(System.getProperty("tesseract.simd"))) {
+            try {
+                return (ProjectionKernel) Class.forName(VECTOR_KERNEL).newInstance();
+            } catch (Exception e) {
+                //Not on the classpath
+            } catch (LinkageError e) {
+                //On the classpath, but the JVM has no jdk.incubator.vector module
+            }
+        }
+        return new Scalar();
+    }
+
+    public abstract String GetName();
+
+    //Rotates the i_count points starting at i_offset by the row major matrix at i_matrix[i_matrixOffset] and projects
+    //them into o_x, o_y and o_z starting at o_offset. i_lightOnW is the W of the light for the stereographic
+    //projection, 0 for the orthographic projection.
+    public abstract void RotateProject(float[] i_matrix, int i_matrixOffset, float i_lightOnW,
+            float[] i_x, float[] i_y, float[] i_z, float[] i_w, int i_offset, int i_count,
+            float[] o_x, float[] o_y, float[] o_z, int o_offset);
+
+    //The reference implementation, also used by the other kernels for the points that do not fill a whole vector
+    public static void RotateProjectScalar(float[] i_matrix, int i_matrixOffset, float i_lightOnW,
+            float[] i_x, float[] i_y, float[] i_z, float[] i_w, int i_offset, int i_count,
+            float[] o_x, float[] o_y, float[] o_z, int o_offset) {
+        float[] m = i_matrix;
+        int o = i_matrixOffset;
+        for (int i = 0; i < i_count; i++) {
+            float x = i_x[i_offset + i];
+            float y = i_y[i_offset + i];
+            float z = i_z[i_offset + i];
+            float w = i_w[i_offset + i];
+
+            float rx = m[o] * x + m[o + 1] * y + m[o + 2] * z + m[o + 3] * w;
+            float ry = m[o + 4] * x + m[o + 5] * y + m[o + 6] * z + m[o + 7] * w;
+            float rz = m[o + 8] * x + m[o + 9] * y + m[o + 10] * z + m[o + 11] * w;
+            float rw = m[o + 12] * x + m[o + 13] * y + m[o + 14] * z + m[o + 15] * w;
+
+            float scale = i_lightOnW == 0.f ? 1.f : i_lightOnW / (i_lightOnW - rw);
+            o_x[o_offset + i] = rx * scale;
+            o_y[o_offset + i] = ry * scale;
+            o_z[o_offset + i] = rz * scale;
+        }
+    }
+
+    static class Scalar extends ProjectionKernel {
+
+        @Override
+        public String GetName() {
+            return "scalar";
+        }
+
+        @Override
+        public void RotateProject(float[] i_matrix, int i_matrixOffset, float i_lightOnW,
+                float[] i_x, float[] i_y, float[] i_z, float[] i_w, int i_offset, int i_count,
+                float[] o_x, float[] o_y, float[] o_z, int o_offset) {
+            RotateProjectScalar(i_matrix, i_matrixOffset, i_lightOnW,
+                    i_x, i_y, i_z, i_w, i_offset, i_count, o_x, o_y, o_z, o_offset);
+        }
+    }
+}
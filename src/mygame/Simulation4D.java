@@ -0,0 +1,254 @@
+package mygame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+    Advances the 4D state of tesseracts at a fixed rate on its own thread, so the simulation neither costs frame time
+    nor depends on it.
+
+    Every step the simulation thread rotates the orientations and projects the corners, then publishes the finished
+    state through a lock-free handoff: the writer swaps its buffer with the ready one, the render thread swaps the
+    ready one with the buffer it no longer needs. No buffer is ever owned by both threads.
+    The render thread keeps the last two states it received and interpolates between them, one step behind real time,
+    so the motion stays smooth whatever the ratio between the frame rate and the simulation rate.
+
+    Everything except Update(), SetRotation() and SetStereographicProjection() must be called before Start() or after
+    Stop(). Tesseracts projected on the GPU cannot be simulated.
+ */
+public class Simulation4D implements Runnable {
+
+    //When the simulation falls further behind than this, for example after a debugger pause, the missed steps are dropped
+    private static final int MAX_STEPS_BEHIND = 5;
+
+    private final float m_stepSeconds;
+    private final long m_stepNanos;
+    private final int m_capacity;
+    private final List<Tesseract> m_tesseracts = new ArrayList<Tesseract>();
+    private final ProjectionKernel m_kernel = ProjectionKernel.Get();
+
+    //Written before Start(), only read by the simulation thread afterwards
+    private float[] m_restX, m_restY, m_restZ, m_restW;
+    private float[] m_lightOnW;
+
+    //Owned by the simulation thread
+    private Orientation4D[] m_orientations;
+    private Matrix4D m_stepRotation = new Matrix4D();
+    private long m_step = 0;
+    private boolean b_wasStereographicProjection;
+    private State m_writeState;
+
+    //Commands from the render thread
+    private volatile Tesseract.RotationalPlane m_rotationPlane = Tesseract.RotationalPlane.None;
+    private volatile float m_degreesPerSecond = 0.f;
+    private volatile boolean b_isStereographicProjection = true;
+
+    //The handoff, holds the newest published state or a buffer the render thread gave back
+    private final AtomicReference<State> m_ready = new AtomicReference<State>();
+
+    //Owned by the render thread
+    private State m_current;
+    private State m_previous;
+    private float[] m_x, m_y, m_z;
+    private Matrix4D m_orientation = new Matrix4D();
+    private long m_shownStep = 0; //The state the tesseracts show without interpolation, 0 while interpolating
+
+    private volatile boolean b_isRunning = false;
+    private Thread m_thread;
+
+    public Simulation4D(float i_stepsPerSecond, int i_capacity) {
+        m_stepSeconds = 1.f / i_stepsPerSecond;
+        m_stepNanos = (long) (1e9 / i_stepsPerSecond);
+        m_capacity = i_capacity;
+
+        m_restX = new float[i_capacity * 16];
+        m_restY = new float[i_capacity * 16];
+        m_restZ = new float[i_capacity * 16];
+        m_restW = new float[i_capacity * 16];
+        m_lightOnW = new float[i_capacity];
+        m_orientations = new Orientation4D[i_capacity];
+
+        m_writeState = new State(i_capacity);
+        m_ready.set(new State(i_capacity));
+        m_current = new State(i_capacity);
+        m_previous = new State(i_capacity);
+        m_x = new float[i_capacity * 16];
+        m_y = new float[i_capacity * 16];
+        m_z = new float[i_capacity * 16];
+    }
+
+    //The simulation starts from the current orientation of the tesseract
+    public void Add(Tesseract i_tesseract) {
+        if (i_tesseract.IsProjectedOnGpu()) {
+            throw new IllegalArgumentException("A Tesseract projected on the GPU cannot be simulated");
+        }
+        if (m_tesseracts.size() == m_capacity) {
+            throw new IllegalStateException("The simulation is full, its capacity is " + m_capacity);
+        }
+        if (b_isRunning) {
+            throw new IllegalStateException("Tesseracts cannot be added while the simulation runs");
+        }
+
+        int index = m_tesseracts.size();
+        float[] rest = i_tesseract.GetRestCorners();
+        for (int i = 0; i < 16; i++) {
+            m_restX[index * 16 + i] = rest[i * 4];
+            m_restY[index * 16 + i] = rest[i * 4 + 1];
+            m_restZ[index * 16 + i] = rest[i * 4 + 2];
+            m_restW[index * 16 + i] = rest[i * 4 + 3];
+        }
+        m_lightOnW[index] = i_tesseract.GetLightOnW();
+        m_orientations[index] = new Orientation4D(new Matrix4D(i_tesseract.GetOrientation()));
+        b_isStereographicProjection = i_tesseract.IsStereographicProjection();
+
+        m_tesseracts.add(i_tesseract);
+        i_tesseract.SetBatched(true);
+    }
+
+    public int GetSize() {
+        return m_tesseracts.size();
+    }
+
+    public float GetStepSeconds() {
+        return m_stepSeconds;
+    }
+
+    //Every simulated tesseract rotates with i_degreesPerSecond on the plane, taking effect with the next step
+    public void SetRotation(Tesseract.RotationalPlane i_rotationPlane, float i_degreesPerSecond) {
+        m_rotationPlane = i_rotationPlane;
+        m_degreesPerSecond = i_degreesPerSecond;
+    }
+
+    public void SetStereographicProjection(boolean i_isStereographicProjection) {
+        b_isStereographicProjection = i_isStereographicProjection;
+    }
+
+    public void Start() {
+        if (b_isRunning) return;
+
+        //Publish a first state right away so the first frame already has something to show
+        Step(System.nanoTime());
+
+        b_isRunning = true;
+        m_thread = new Thread(this, "Simulation4D");
+        m_thread.setDaemon(true);
+        m_thread.start();
+    }
+
+    //Waits for the simulation thread to finish and hands the tesseracts back at their latest orientation
+    public void Stop() {
+        if (!b_isRunning) return;
+
+        b_isRunning = false;
+        LockSupport.unpark(m_thread);
+        try {
+            m_thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        m_thread = null;
+
+        Update();
+        for (int t = 0; t < m_tesseracts.size(); t++) {
+            m_tesseracts.get(t).SetBatched(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        long next = System.nanoTime() + m_stepNanos;
+        while (b_isRunning) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+
+            Step(next);
+            next += m_stepNanos;
+            if (now - next > MAX_STEPS_BEHIND * m_stepNanos) {
+                next = now;
+            }
+        }
+    }
+
+    //Advances every tesseract by one step and publishes the result, i_time is when the step is due
+    //Nothing is published while nothing moves, so the render thread has nothing to upload either
+    private void Step(long i_time) {
+        Tesseract.RotationalPlane rotationPlane = m_rotationPlane;
+        float degreesPerSecond = m_degreesPerSecond;
+        boolean stereographic = b_isStereographicProjection;
+        boolean isRotating = rotationPlane != Tesseract.RotationalPlane.None && degreesPerSecond != 0.f;
+        if (!isRotating && stereographic == b_wasStereographicProjection && m_step != 0) return;
+        b_wasStereographicProjection = stereographic;
+
+        m_stepRotation.SetIdentity().Rotate(degreesPerSecond * m_stepSeconds, rotationPlane);
+
+        State state = m_writeState;
+        for (int t = 0; t < m_tesseracts.size(); t++) {
+            Orientation4D orientation = m_orientations[t];
+            if (isRotating) {
+                orientation.Rotate(m_stepRotation);
+            }
+            orientation.Get().Get(state.m_orientations, t * 16);
+
+            m_kernel.RotateProject(state.m_orientations, t * 16, stereographic ? m_lightOnW[t] : 0.f,
+                    m_restX, m_restY, m_restZ, m_restW, t * 16, 16,
+                    state.m_x, state.m_y, state.m_z, t * 16);
+        }
+        state.m_step = ++m_step;
+        state.m_time = i_time;
+
+        m_writeState = m_ready.getAndSet(state);
+    }
+
+    //Called by the render thread every frame, shows the simulated state interpolated for the current time
+    public void Update() {
+        //Only the render thread gives old buffers back, so a ready state newer than the current one stays newer
+        if (m_ready.get().m_step > m_current.m_step) {
+            State unused = m_previous;
+            m_previous = m_current;
+            m_current = m_ready.getAndSet(unused);
+        }
+        if (m_current.m_step == 0 || m_current.m_step == m_shownStep) return;
+
+        float alpha = 1.f;
+        if (m_previous.m_step != 0) {
+            long renderTime = System.nanoTime() - m_stepNanos;
+            alpha = (float) (renderTime - m_previous.m_time) / (m_current.m_time - m_previous.m_time);
+            alpha = Math.max(0.f, Math.min(1.f, alpha));
+        }
+        //Once the newest state is reached it stays on screen as it is until the next one arrives
+        m_shownStep = alpha == 1.f ? m_current.m_step : 0;
+
+        int count = m_tesseracts.size() * 16;
+        for (int i = 0; i < count; i++) {
+            m_x[i] = m_previous.m_x[i] + (m_current.m_x[i] - m_previous.m_x[i]) * alpha;
+            m_y[i] = m_previous.m_y[i] + (m_current.m_y[i] - m_previous.m_y[i]) * alpha;
+            m_z[i] = m_previous.m_z[i] + (m_current.m_z[i] - m_previous.m_z[i]) * alpha;
+        }
+
+        for (int t = 0; t < m_tesseracts.size(); t++) {
+            Tesseract tesseract = m_tesseracts.get(t);
+            tesseract.SetOrientation(m_orientation.Set(m_current.m_orientations, t * 16));
+            tesseract.SetProjectedCorners(m_x, m_y, m_z, t * 16);
+        }
+    }
+
+    private static class State {
+
+        private volatile long m_step = 0; //0 until the state holds a simulated step
+        private long m_time;
+        private final float[] m_x, m_y, m_z;
+        private final float[] m_orientations; //16 floats per tesseract, row major
+
+        State(int i_capacity) {
+            m_x = new float[i_capacity * 16];
+            m_y = new float[i_capacity * 16];
+            m_z = new float[i_capacity * 16];
+            m_orientations = new float[i_capacity * 16];
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package mygame;
+
+import com.jme3.scene.Spatial;
+
+/*
+    A node of the 4D scene graph, the 4 dimensional counterpart of jME's Spatial.
+    Every spatial has a local Transform4D relative to its parent and a world Transform4D combining all of its ancestors.
+    The world transforms are computed lazily: changing a local transform only marks the spatial dirty and tells its
+    ancestors that something below them changed. Node4D.UpdateWorldTransforms() then only walks down the branches with
+    a dirty spatial and only re-transforms, and so re-projects, the subtrees below a changed spatial.
+
+    Each spatial mirrors itself in the 3D scene graph with GetSpatial(), the projections of the leaves are already
+    placed by their world transform, so the 3D counterparts are left untransformed relative to each other.
+ */
+public abstract class Spatial4D {
+
+    private String m_name;
+    private Node4D m_parent;
+    private final Transform4D m_localTransform = new Transform4D();
+    private final Transform4D m_worldTransform = new Transform4D();
+    private final Orientation4D m_orientation = new Orientation4D(m_localTransform.GetRotation());
+
+    //The local transform changed since the world transform was last computed
+    private boolean b_isWorldDirty = true;
+    //A spatial somewhere below this one is dirty
+    private boolean b_hasDirtyChild = false;
+
+    protected Spatial4D(String i_name) {
+        m_name = i_name;
+    }
+
+    public String GetName() {
+        return m_name;
+    }
+
+    public Node4D GetParent() {
+        return m_parent;
+    }
+
+    void SetParent(Node4D i_parent) {
+        m_parent = i_parent;
+        MarkDirty();
+    }
+
+    //The 3D spatial the projection of this one is drawn with
+    public abstract Spatial GetSpatial();
+
+    //Read only, change it with the setters so the spatial is marked dirty
+    public Transform4D GetLocalTransform() {
+        return m_localTransform;
+    }
+
+    //Valid after the last Node4D.UpdateWorldTransforms() of the root
+    public Transform4D GetWorldTransform() {
+        return m_worldTransform;
+    }
+
+    public void SetLocalTransform(Transform4D i_transform) {
+        m_localTransform.Set(i_transform);
+        m_orientation.Reset();
+        MarkDirty();
+    }
+
+    public void SetLocalRotation(Matrix4D i_rotation) {
+        m_orientation.Set(i_rotation);
+        MarkDirty();
+    }
+
+    public void SetLocalTranslation(float i_x, float i_y, float i_z, float i_w) {
+        m_localTransform.SetTranslation(i_x, i_y, i_z, i_w);
+        MarkDirty();
+    }
+
+    public void SetLocalScale(float i_scale) {
+        m_localTransform.SetScale(i_scale);
+        MarkDirty();
+    }
+
+    public void Rotate(float i_angle, Tesseract.RotationalPlane i_rotationPlane) {
+        if (!m_orientation.Rotate(i_angle, i_rotationPlane)) return;
+
+        MarkDirty();
+    }
+
+    //Rotates the spatial in its parent's space, like Tesseract.Rotate() the accumulated rotation is kept orthonormal
+    public void Rotate(Matrix4D i_rotation) {
+        m_orientation.Rotate(i_rotation);
+        MarkDirty();
+    }
+
+    public boolean IsWorldDirty() {
+        return b_isWorldDirty;
+    }
+
+    protected void MarkDirty() {
+        b_isWorldDirty = true;
+        for (Spatial4D ancestor = m_parent; ancestor != null && !ancestor.b_hasDirtyChild; ancestor = ancestor.m_parent) {
+            ancestor.b_hasDirtyChild = true;
+        }
+    }
+
+    boolean HasDirtyChild() {
+        return b_hasDirtyChild;
+    }
+
+    //Brings the world transform of this subtree up to date, returns the number of spatials that were re-transformed
+    int UpdateWorld(Transform4D i_parentWorld, boolean i_hasParentChanged) {
+        boolean hasChanged = b_isWorldDirty || i_hasParentChanged;
+        if (hasChanged) {
+            if (i_parentWorld == null) {
+                m_worldTransform.Set(m_localTransform);
+            } else {
+                m_worldTransform.Combine(i_parentWorld, m_localTransform);
+            }
+            WorldTransformChanged();
+        }
+        b_isWorldDirty = false;
+
+        int updated = (hasChanged ? 1 : 0);
+        if (hasChanged || b_hasDirtyChild) {
+            updated += UpdateChildren(hasChanged);
+        }
+        b_hasDirtyChild = false;
+        return updated;
+    }
+
+    //Switches every tesseract at and below this spatial between the stereographic and the orthographic projection
+    public abstract void ToggleProjection();
+
+    //Called with the new world transform, a leaf poses its mesh here
+    protected void WorldTransformChanged() {
+    }
+
+    int UpdateChildren(boolean i_hasChanged) {
+        return 0;
+    }
+}
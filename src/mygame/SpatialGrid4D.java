@@ -0,0 +1,594 @@
+package mygame;
+
+import java.util.Arrays;
+
+/*
+    A hashed uniform grid over 4D space for proximity queries on large populations of 4D objects.
+    Every entry is a hypersphere, for a tesseract the one around its 4D translation with scale * rest radius, which
+    contains it in any orientation: rotating an object never touches the grid, only moving or scaling it does.
+
+    The entries are stored structure-of-arrays style and binned by the cell of their centre. Only occupied cells exist,
+    in an open addressing hash table from the packed cell coordinates to the first entry of the cell, the entries of a
+    cell are linked through m_next and m_prev. Moving an entry within its cell only writes its centre, moving it to
+    another cell unlinks and relinks it, both without allocating.
+
+    Queries find the candidates in the cells the query can reach and test them exactly:
+        Nearest - the entry with the closest surface to a point, searched in growing shells of cells around it
+        QueryRadius - the entries whose hypersphere intersects a ball
+        QueryOverlaps - every pair of intersecting entries, each cell against itself and half of its neighbours
+    A query reaching more cells than are occupied scans the occupied cells instead, so a sparse grid or a huge query
+    degrades to a linear scan instead of enumerating empty cells. So does a query spanning more than MAX_SPAN cells
+    along an axis, which would meet aliased cells twice and whose cell counts would not fit the integers.
+
+    The cell size should be about twice the typical radius. The grid reaches out by the largest radius it has seen,
+    a few much larger entries are better kept in a separate grid with larger cells.
+    Each axis keeps 16 bits of the cell coordinate, cells 65536 apart share a key, which only costs extra candidates.
+ */
+public class SpatialGrid4D {
+
+    //A growable list of entry IDs, or of pairs of them for QueryOverlaps(), reused between queries
+    public static final class Results {
+
+        private int[] m_values = new int[64];
+        private int m_size = 0;
+
+        public int GetSize() {
+            return m_size;
+        }
+
+        public int Get(int i_index) {
+            return m_values[i_index];
+        }
+
+        public void Clear() {
+            m_size = 0;
+        }
+
+        void Add(int i_value) {
+            if (m_size == m_values.length) {
+                m_values = Arrays.copyOf(m_values, m_size * 2);
+            }
+            m_values[m_size++] = i_value;
+        }
+    }
+
+    private static final int NONE = -1;
+    private static final int INITIAL_TABLE_SIZE = 64;
+
+    //Most cells along an axis a query enumerates, half of the 65536 that alias, its 4th power still fits a long
+    private static final int MAX_SPAN = 1 << 15;
+
+    private final float m_cellSize;
+    private final float m_inverseCellSize;
+
+    //Per entry, indexed by ID
+    private float[] m_x, m_y, m_z, m_w, m_radius;
+    private long[] m_cellKeys;
+    private int[] m_next, m_prev; //Within the cell, or the free list through m_next
+    private boolean[] m_isUsed;
+    private int m_idCount = 0; //IDs below it were handed out at some point
+    private int m_size = 0;
+    private int m_freeHead = NONE;
+    private float m_maxRadius = 0.f;
+
+    //The occupied cells, a slot is empty while its head is NONE
+    private long[] m_tableKeys;
+    private int[] m_tableHeads;
+    private int m_tableMask;
+    private int m_occupiedCells = 0;
+
+    //Cell offsets with a lexicographically positive XYZW, 4 ints each, for the current QueryOverlaps() reach
+    private int[] m_pairOffsets = new int[0];
+    private int m_pairReach = -1;
+    private final float[] m_reached = new float[8];
+
+    public SpatialGrid4D(float i_cellSize) {
+        this(i_cellSize, 64);
+    }
+
+    public SpatialGrid4D(float i_cellSize, int i_capacity) {
+        if (i_cellSize <= 0.f) {
+            throw new IllegalArgumentException("The cell size must be positive, not " + i_cellSize);
+        }
+        m_cellSize = i_cellSize;
+        m_inverseCellSize = 1.f / i_cellSize;
+
+        int capacity = Math.max(1, i_capacity);
+        m_x = new float[capacity];
+        m_y = new float[capacity];
+        m_z = new float[capacity];
+        m_w = new float[capacity];
+        m_radius = new float[capacity];
+        m_cellKeys = new long[capacity];
+        m_next = new int[capacity];
+        m_prev = new int[capacity];
+        m_isUsed = new boolean[capacity];
+
+        int tableSize = INITIAL_TABLE_SIZE;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        AllocateTable(tableSize);
+    }
+
+    public float GetCellSize() {
+        return m_cellSize;
+    }
+
+    public int GetSize() {
+        return m_size;
+    }
+
+    public int GetOccupiedCellCount() {
+        return m_occupiedCells;
+    }
+
+    //Returns the ID of the new entry, IDs of removed entries are reused
+    public int Add(float i_x, float i_y, float i_z, float i_w, float i_radius) {
+        int id;
+        if (m_freeHead != NONE) {
+            id = m_freeHead;
+            m_freeHead = m_next[id];
+        } else {
+            if (m_idCount == m_x.length) {
+                Grow(m_idCount * 2);
+            }
+            id = m_idCount++;
+        }
+
+        m_isUsed[id] = true;
+        m_size++;
+        SetSphere(id, i_x, i_y, i_z, i_w, i_radius);
+        m_cellKeys[id] = CellKey(i_x, i_y, i_z, i_w);
+        Link(id);
+        return id;
+    }
+
+    //The hypersphere of the tesseract in any orientation, see Tesseract.SetTransform4D()
+    public int Add(Tesseract i_tesseract) {
+        Transform4D placement = i_tesseract.GetPlacement();
+        return Add(placement.GetTranslation(0), placement.GetTranslation(1), placement.GetTranslation(2),
+                placement.GetTranslation(3), i_tesseract.GetRestRadius() * placement.GetScale());
+    }
+
+    public void Remove(int i_id) {
+        CheckId(i_id);
+        Unlink(i_id);
+        m_isUsed[i_id] = false;
+        m_next[i_id] = m_freeHead;
+        m_freeHead = i_id;
+        m_size--;
+        if (m_size == 0) {
+            m_maxRadius = 0.f;
+        }
+    }
+
+    public void Update(int i_id, float i_x, float i_y, float i_z, float i_w, float i_radius) {
+        CheckId(i_id);
+        SetSphere(i_id, i_x, i_y, i_z, i_w, i_radius);
+
+        long key = CellKey(i_x, i_y, i_z, i_w);
+        if (key == m_cellKeys[i_id]) return;
+
+        Unlink(i_id);
+        m_cellKeys[i_id] = key;
+        Link(i_id);
+    }
+
+    //Only a tesseract that moved or was scaled needs to be updated, its rotations keep the hypersphere
+    public void Update(int i_id, Tesseract i_tesseract) {
+        Transform4D placement = i_tesseract.GetPlacement();
+        Update(i_id, placement.GetTranslation(0), placement.GetTranslation(1), placement.GetTranslation(2),
+                placement.GetTranslation(3), i_tesseract.GetRestRadius() * placement.GetScale());
+    }
+
+    //Moves i_count entries to the centres packed as XYZW in i_centers, keeping their radius
+    public void Update(int[] i_ids, float[] i_centers, int i_count) {
+        for (int i = 0; i < i_count; i++) {
+            int id = i_ids[i];
+            Update(id, i_centers[i * 4], i_centers[i * 4 + 1], i_centers[i * 4 + 2], i_centers[i * 4 + 3], m_radius[id]);
+        }
+    }
+
+    public float GetX(int i_id) {
+        return m_x[i_id];
+    }
+
+    public float GetY(int i_id) {
+        return m_y[i_id];
+    }
+
+    public float GetZ(int i_id) {
+        return m_z[i_id];
+    }
+
+    public float GetW(int i_id) {
+        return m_w[i_id];
+    }
+
+    public float GetRadius(int i_id) {
+        return m_radius[i_id];
+    }
+
+    //The entry whose surface is closest to the point, 0 for the ones containing it, NONE while the grid is empty
+    public int Nearest(float i_x, float i_y, float i_z, float i_w) {
+        if (m_size == 0) return NONE;
+
+        int cx = CellCoordinate(i_x), cy = CellCoordinate(i_y), cz = CellCoordinate(i_z), cw = CellCoordinate(i_w);
+        int best = NONE;
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int k = 0; ; k++) {
+            //Past this point the next shell holds more cells than the whole grid
+            long side = 2L * k + 1;
+            if (side * side * side * side > 4L * m_occupiedCells) {
+                return NearestInTable(i_x, i_y, i_z, i_w);
+            }
+
+            for (int a = -k; a <= k; a++) {
+                for (int b = -k; b <= k; b++) {
+                    for (int c = -k; c <= k; c++) {
+                        for (int d = -k; d <= k; d++) {
+                            //Only the cells on the surface of the shell, the ones inside were visited already
+                            if (Math.abs(a) != k && Math.abs(b) != k && Math.abs(c) != k && Math.abs(d) != k) continue;
+
+                            for (int e = Head(PackKey(cx + a, cy + b, cz + c, cw + d)); e != NONE; e = m_next[e]) {
+                                float distance = SurfaceDistance(e, i_x, i_y, i_z, i_w);
+                                if (distance < bestDistance) {
+                                    bestDistance = distance;
+                                    best = e;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            //Every centre outside the shells visited so far is at least k cells away from the point
+            if (best != NONE && bestDistance <= k * m_cellSize - m_maxRadius) {
+                return best;
+            }
+        }
+    }
+
+    //Appends the entries whose hypersphere intersects the ball, returns how many were appended
+    public int QueryRadius(float i_x, float i_y, float i_z, float i_w, float i_radius, Results o_results) {
+        int sizeBefore = o_results.GetSize();
+        if (m_size == 0) return 0;
+
+        float reach = i_radius + m_maxRadius;
+        int minX = CellCoordinate(i_x - reach), maxX = CellCoordinate(i_x + reach);
+        int minY = CellCoordinate(i_y - reach), maxY = CellCoordinate(i_y + reach);
+        int minZ = CellCoordinate(i_z - reach), maxZ = CellCoordinate(i_z + reach);
+        int minW = CellCoordinate(i_w - reach), maxW = CellCoordinate(i_w + reach);
+        long spanX = (long) maxX - minX + 1, spanY = (long) maxY - minY + 1;
+        long spanZ = (long) maxZ - minZ + 1, spanW = (long) maxW - minW + 1;
+
+        if (spanX > MAX_SPAN || spanY > MAX_SPAN || spanZ > MAX_SPAN || spanW > MAX_SPAN
+                || spanX * spanY * spanZ * spanW > m_occupiedCells) {
+            for (int slot = 0; slot <= m_tableMask; slot++) {
+                CollectWithin(m_tableHeads[slot], i_x, i_y, i_z, i_w, i_radius, o_results);
+            }
+        } else {
+            for (int a = minX; a <= maxX; a++) {
+                for (int b = minY; b <= maxY; b++) {
+                    for (int c = minZ; c <= maxZ; c++) {
+                        for (int d = minW; d <= maxW; d++) {
+                            CollectWithin(Head(PackKey(a, b, c, d)), i_x, i_y, i_z, i_w, i_radius, o_results);
+                        }
+                    }
+                }
+            }
+        }
+        return o_results.GetSize() - sizeBefore;
+    }
+
+    //Appends every pair of intersecting entries as two consecutive IDs, the lower one first. Returns the pair count
+    public int QueryOverlaps(Results o_pairs) {
+        int sizeBefore = o_pairs.GetSize();
+
+        //Overlapping centres are at most twice the largest radius apart, a reach past MAX_SPAN always scans the table
+        int reach = (int) Math.min(Math.ceil(2.0 * m_maxRadius * m_inverseCellSize), MAX_SPAN / 2);
+        long side = 2L * reach + 1;
+        if (side > MAX_SPAN || side * side * side * side / 2 > m_occupiedCells) {
+            for (int slot = 0; slot <= m_tableMask; slot++) {
+                int head = m_tableHeads[slot];
+                if (head == NONE) continue;
+
+                CollectOverlapsWithin(head, o_pairs);
+                for (int other = slot + 1; other <= m_tableMask; other++) {
+                    CollectOverlapsBetween(head, m_tableHeads[other], o_pairs);
+                }
+            }
+            return (o_pairs.GetSize() - sizeBefore) / 2;
+        }
+
+        if (reach != m_pairReach) {
+            PreparePairOffsets(reach);
+        }
+        float[] reached = m_reached;
+        for (int slot = 0; slot <= m_tableMask; slot++) {
+            int head = m_tableHeads[slot];
+            if (head == NONE) continue;
+
+            CollectOverlapsWithin(head, o_pairs);
+            ReachedCells(head, reached);
+            long key = m_tableKeys[slot];
+            int cx = (short) key, cy = (short) (key >>> 16), cz = (short) (key >>> 32), cw = (short) (key >>> 48);
+            for (int o = 0; o < m_pairOffsets.length; o += 4) {
+                //Most neighbours are out of reach of every entry of the cell, which is cheaper to test than to look up
+                if (!IsReached(m_pairOffsets[o], reached[0], reached[1])
+                        || !IsReached(m_pairOffsets[o + 1], reached[2], reached[3])
+                        || !IsReached(m_pairOffsets[o + 2], reached[4], reached[5])
+                        || !IsReached(m_pairOffsets[o + 3], reached[6], reached[7])) continue;
+
+                int neighbour = Head(PackKey(cx + m_pairOffsets[o], cy + m_pairOffsets[o + 1],
+                        cz + m_pairOffsets[o + 2], cw + m_pairOffsets[o + 3]));
+                CollectOverlapsBetween(head, neighbour, o_pairs);
+            }
+        }
+        return (o_pairs.GetSize() - sizeBefore) / 2;
+    }
+
+    //Nearest() for i_count points packed as XYZW, o_nearest receives one ID per point
+    public void QueryNearest(float[] i_points, int i_count, int[] o_nearest) {
+        for (int i = 0; i < i_count; i++) {
+            o_nearest[i] = Nearest(i_points[i * 4], i_points[i * 4 + 1], i_points[i * 4 + 2], i_points[i * 4 + 3]);
+        }
+    }
+
+    //QueryRadius() for i_count points packed as XYZW. The entries found for point i are
+    //o_results[o_offsets[i]] to o_results[o_offsets[i + 1] - 1], o_offsets needs i_count + 1 elements
+    public void QueryRadius(float[] i_points, int i_count, float i_radius, Results o_results, int[] o_offsets) {
+        o_results.Clear();
+        for (int i = 0; i < i_count; i++) {
+            o_offsets[i] = o_results.GetSize();
+            QueryRadius(i_points[i * 4], i_points[i * 4 + 1], i_points[i * 4 + 2], i_points[i * 4 + 3], i_radius, o_results);
+        }
+        o_offsets[i_count] = o_results.GetSize();
+    }
+
+    private void SetSphere(int i_id, float i_x, float i_y, float i_z, float i_w, float i_radius) {
+        m_x[i_id] = i_x;
+        m_y[i_id] = i_y;
+        m_z[i_id] = i_z;
+        m_w[i_id] = i_w;
+        m_radius[i_id] = i_radius;
+        m_maxRadius = Math.max(m_maxRadius, i_radius);
+    }
+
+    private void CheckId(int i_id) {
+        if (i_id < 0 || i_id >= m_idCount || !m_isUsed[i_id]) {
+            throw new IllegalArgumentException("There is no entry " + i_id + " in the grid");
+        }
+    }
+
+    private float SurfaceDistance(int i_id, float i_x, float i_y, float i_z, float i_w) {
+        float dx = m_x[i_id] - i_x, dy = m_y[i_id] - i_y, dz = m_z[i_id] - i_z, dw = m_w[i_id] - i_w;
+        return Math.max(0.f, (float) Math.sqrt(dx * dx + dy * dy + dz * dz + dw * dw) - m_radius[i_id]);
+    }
+
+    private int NearestInTable(float i_x, float i_y, float i_z, float i_w) {
+        int best = NONE;
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int slot = 0; slot <= m_tableMask; slot++) {
+            for (int e = m_tableHeads[slot]; e != NONE; e = m_next[e]) {
+                float distance = SurfaceDistance(e, i_x, i_y, i_z, i_w);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = e;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void CollectWithin(int i_head, float i_x, float i_y, float i_z, float i_w, float i_radius, Results o_results) {
+        for (int e = i_head; e != NONE; e = m_next[e]) {
+            float dx = m_x[e] - i_x, dy = m_y[e] - i_y, dz = m_z[e] - i_z, dw = m_w[e] - i_w;
+            float reach = i_radius + m_radius[e];
+            if (dx * dx + dy * dy + dz * dz + dw * dw <= reach * reach) {
+                o_results.Add(e);
+            }
+        }
+    }
+
+    private void CollectOverlapsWithin(int i_head, Results o_pairs) {
+        for (int a = i_head; a != NONE; a = m_next[a]) {
+            for (int b = m_next[a]; b != NONE; b = m_next[b]) {
+                CollectOverlap(a, b, o_pairs);
+            }
+        }
+    }
+
+    private void CollectOverlapsBetween(int i_head, int i_otherHead, Results o_pairs) {
+        for (int a = i_head; a != NONE; a = m_next[a]) {
+            for (int b = i_otherHead; b != NONE; b = m_next[b]) {
+                CollectOverlap(a, b, o_pairs);
+            }
+        }
+    }
+
+    private void CollectOverlap(int i_a, int i_b, Results o_pairs) {
+        float dx = m_x[i_a] - m_x[i_b], dy = m_y[i_a] - m_y[i_b], dz = m_z[i_a] - m_z[i_b], dw = m_w[i_a] - m_w[i_b];
+        float reach = m_radius[i_a] + m_radius[i_b];
+        if (dx * dx + dy * dy + dz * dz + dw * dw > reach * reach) return;
+
+        o_pairs.Add(Math.min(i_a, i_b));
+        o_pairs.Add(Math.max(i_a, i_b));
+    }
+
+    //Per axis, the range of cells relative to the cell of the entries that the entries reach into, grown by the
+    //largest radius so every entry they can overlap is centred within it. As min, max pairs in cell units
+    private void ReachedCells(int i_head, float[] o_reached) {
+        for (int a = 0; a < 8; a += 2) {
+            o_reached[a] = Float.POSITIVE_INFINITY;
+            o_reached[a + 1] = Float.NEGATIVE_INFINITY;
+        }
+        for (int e = i_head; e != NONE; e = m_next[e]) {
+            float reach = (m_radius[e] + m_maxRadius) * m_inverseCellSize;
+            ReachedAxis(m_x[e], reach, 0, o_reached);
+            ReachedAxis(m_y[e], reach, 2, o_reached);
+            ReachedAxis(m_z[e], reach, 4, o_reached);
+            ReachedAxis(m_w[e], reach, 6, o_reached);
+        }
+    }
+
+    private void ReachedAxis(float i_value, float i_reach, int i_axis, float[] io_reached) {
+        float cells = i_value * m_inverseCellSize;
+        float withinCell = cells - (float) Math.floor(cells);
+        io_reached[i_axis] = Math.min(io_reached[i_axis], withinCell - i_reach);
+        io_reached[i_axis + 1] = Math.max(io_reached[i_axis + 1], withinCell + i_reach);
+    }
+
+    //Whether [i_min, i_max] overlaps the cell i_offset cells away, which spans [i_offset, i_offset + 1)
+    private static boolean IsReached(int i_offset, float i_min, float i_max) {
+        return i_max >= i_offset && i_min < i_offset + 1;
+    }
+
+    private void PreparePairOffsets(int i_reach) {
+        //Only called for fewer offsets than occupied cells, see QueryOverlaps()
+        long side = 2L * i_reach + 1;
+        m_pairOffsets = new int[(int) ((side * side * side * side - 1) / 2 * 4)];
+        int o = 0;
+        for (int a = -i_reach; a <= i_reach; a++) {
+            for (int b = -i_reach; b <= i_reach; b++) {
+                for (int c = -i_reach; c <= i_reach; c++) {
+                    for (int d = -i_reach; d <= i_reach; d++) {
+                        //Of every offset and its opposite only the one whose first non-zero axis is positive is kept
+                        boolean isPositive = a > 0 || a == 0 && (b > 0 || b == 0 && (c > 0 || c == 0 && d > 0));
+                        if (!isPositive) continue;
+
+                        m_pairOffsets[o++] = a;
+                        m_pairOffsets[o++] = b;
+                        m_pairOffsets[o++] = c;
+                        m_pairOffsets[o++] = d;
+                    }
+                }
+            }
+        }
+        m_pairReach = i_reach;
+    }
+
+    private int CellCoordinate(float i_value) {
+        return (int) Math.floor(i_value * m_inverseCellSize);
+    }
+
+    private long CellKey(float i_x, float i_y, float i_z, float i_w) {
+        return PackKey(CellCoordinate(i_x), CellCoordinate(i_y), CellCoordinate(i_z), CellCoordinate(i_w));
+    }
+
+    private static long PackKey(int i_x, int i_y, int i_z, int i_w) {
+        return (i_x & 0xFFFFL) | (i_y & 0xFFFFL) << 16 | (i_z & 0xFFFFL) << 32 | (i_w & 0xFFFFL) << 48;
+    }
+
+    //The finaliser of MurmurHash3, neighbouring cells differ in few bits of their key
+    private static int Hash(long i_key) {
+        long h = i_key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private int FindSlot(long i_key) {
+        int slot = Hash(i_key) & m_tableMask;
+        while (m_tableHeads[slot] != NONE && m_tableKeys[slot] != i_key) {
+            slot = (slot + 1) & m_tableMask;
+        }
+        return slot;
+    }
+
+    private int Head(long i_key) {
+        return m_tableHeads[FindSlot(i_key)];
+    }
+
+    private void Link(int i_id) {
+        long key = m_cellKeys[i_id];
+        int slot = FindSlot(key);
+        int head = m_tableHeads[slot];
+        m_prev[i_id] = NONE;
+        m_next[i_id] = head;
+        if (head != NONE) {
+            m_prev[head] = i_id;
+            m_tableHeads[slot] = i_id;
+            return;
+        }
+
+        m_tableKeys[slot] = key;
+        m_tableHeads[slot] = i_id;
+        //Kept at most half full so the probe sequences stay short
+        if (++m_occupiedCells * 2 > m_tableHeads.length) {
+            Rehash(m_tableHeads.length * 2);
+        }
+    }
+
+    private void Unlink(int i_id) {
+        int prev = m_prev[i_id];
+        int next = m_next[i_id];
+        if (next != NONE) {
+            m_prev[next] = prev;
+        }
+        if (prev != NONE) {
+            m_next[prev] = next;
+            return;
+        }
+
+        int slot = FindSlot(m_cellKeys[i_id]);
+        m_tableHeads[slot] = next;
+        if (next == NONE) {
+            RemoveSlot(slot);
+            m_occupiedCells--;
+        }
+    }
+
+    //Backward shift deletion, moves the following entries of the probe sequence up instead of leaving a tombstone
+    private void RemoveSlot(int i_slot) {
+        int hole = i_slot;
+        m_tableHeads[hole] = NONE;
+        for (int slot = (hole + 1) & m_tableMask; m_tableHeads[slot] != NONE; slot = (slot + 1) & m_tableMask) {
+            int home = Hash(m_tableKeys[slot]) & m_tableMask;
+            //The entry stays when its home slot lies cyclically within (hole, slot]
+            boolean stays = hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot);
+            if (stays) continue;
+
+            m_tableKeys[hole] = m_tableKeys[slot];
+            m_tableHeads[hole] = m_tableHeads[slot];
+            m_tableHeads[slot] = NONE;
+            hole = slot;
+        }
+    }
+
+    private void AllocateTable(int i_size) {
+        m_tableKeys = new long[i_size];
+        m_tableHeads = new int[i_size];
+        Arrays.fill(m_tableHeads, NONE);
+        m_tableMask = i_size - 1;
+    }
+
+    private void Rehash(int i_size) {
+        long[] keys = m_tableKeys;
+        int[] heads = m_tableHeads;
+        AllocateTable(i_size);
+        for (int i = 0; i < heads.length; i++) {
+            if (heads[i] == NONE) continue;
+
+            int slot = FindSlot(keys[i]);
+            m_tableKeys[slot] = keys[i];
+            m_tableHeads[slot] = heads[i];
+        }
+    }
+
+    private void Grow(int i_capacity) {
+        m_x = Arrays.copyOf(m_x, i_capacity);
+        m_y = Arrays.copyOf(m_y, i_capacity);
+        m_z = Arrays.copyOf(m_z, i_capacity);
+        m_w = Arrays.copyOf(m_w, i_capacity);
+        m_radius = Arrays.copyOf(m_radius, i_capacity);
+        m_cellKeys = Arrays.copyOf(m_cellKeys, i_capacity);
+        m_next = Arrays.copyOf(m_next, i_capacity);
+        m_prev = Arrays.copyOf(m_prev, i_capacity);
+        m_isUsed = Arrays.copyOf(m_isUsed, i_capacity);
+    }
+}
@@ -0,0 +1,116 @@
+package mygame;
+
+/*
+    Times the per-vertex stages of the 4D meshes. Instrumented code brackets a stage with
+
+        long start = StageProfiler.Begin(StageProfiler.Stage.Project);
+        ...
+        StageProfiler.End(StageProfiler.Stage.Project, start);
+
+    Every call is counted, but only one call in SAMPLE_INTERVAL is timed: the stages take a few microseconds, so
+    timing each of them would cost several percent on its own. The time of a stage is estimated from its sampled
+    calls. When the profiler is disabled Begin() is a single branch.
+
+    The counters are not synchronised, only stages running on the render thread should be instrumented.
+ */
+public final class StageProfiler {
+
+    public enum Stage {
+        Rotate, //Rotating the rest pose into the current orientation
+        Project, //Projecting the rotated corners from 4D into 3D
+        Upload, //Gathering the render vertices and streaming them to the position buffer
+        UpdateBound, //Recomputing the bound of the mesh
+        Cull, //Testing the 4D objects against the view volume before they are rotated
+        Slice //Cutting a CrossSection4D, from rotating its vertices to its bound
+    }
+
+    public static final int SAMPLE_INTERVAL = 64;
+    private static final int SAMPLE_MASK = SAMPLE_INTERVAL - 1;
+
+    //One more slot than there are stages, used to calibrate the cost of the profiler itself
+    private static final int STAGE_COUNT = Stage.values().length;
+    private static final int CALIBRATION = STAGE_COUNT;
+
+    private static boolean s_isEnabled = false;
+    private static final long[] s_calls = new long[STAGE_COUNT + 1];
+    private static final LatencyHistogram[] s_samples = new LatencyHistogram[STAGE_COUNT + 1];
+
+    static {
+        for (int i = 0; i <= STAGE_COUNT; i++) {
+            s_samples[i] = new LatencyHistogram();
+        }
+    }
+
+    private StageProfiler() {
+    }
+
+    public static void SetEnabled(boolean i_isEnabled) {
+        s_isEnabled = i_isEnabled;
+    }
+
+    public static boolean IsEnabled() {
+        return s_isEnabled;
+    }
+
+    //Returns 0 when this call is not timed
+    public static long Begin(Stage i_stage) {
+        if (!s_isEnabled) return 0;
+        return Begin(i_stage.ordinal());
+    }
+
+    public static void End(Stage i_stage, long i_start) {
+        if (i_start == 0) return;
+        End(i_stage.ordinal(), i_start);
+    }
+
+    private static long Begin(int i_stage) {
+        if ((s_calls[i_stage]++ & SAMPLE_MASK) != 0) return 0;
+        return System.nanoTime();
+    }
+
+    private static void End(int i_stage, long i_start) {
+        s_samples[i_stage].Record(System.nanoTime() - i_start);
+    }
+
+    public static long GetCalls(Stage i_stage) {
+        return s_calls[i_stage.ordinal()];
+    }
+
+    //The durations of the timed calls
+    public static LatencyHistogram GetSamples(Stage i_stage) {
+        return s_samples[i_stage.ordinal()];
+    }
+
+    //The total time spent in the stage, extrapolated from the timed calls
+    public static double GetEstimatedNanos(Stage i_stage) {
+        return s_samples[i_stage.ordinal()].GetMeanNanos() * s_calls[i_stage.ordinal()];
+    }
+
+    public static void Reset() {
+        for (int i = 0; i <= STAGE_COUNT; i++) {
+            s_calls[i] = 0;
+            s_samples[i].Reset();
+        }
+    }
+
+    //Measures the average cost of one Begin()/End() pair, sampled and unsampled calls included
+    //The best of several rounds is kept, the first ones still run before the JIT compiled the loop
+    public static double MeasureCallNanos() {
+        final int calls = 1 << 18;
+        double callNanos = Double.MAX_VALUE;
+        for (int round = 0; round < 8; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                long callStart = Begin(CALIBRATION);
+                if (callStart != 0) {
+                    End(CALIBRATION, callStart);
+                }
+            }
+            callNanos = Math.min(callNanos, (double) (System.nanoTime() - start) / calls);
+        }
+
+        s_calls[CALIBRATION] = 0;
+        s_samples[CALIBRATION].Reset();
+        return callNanos;
+    }
+}
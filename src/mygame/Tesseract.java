@@ -1,18 +1,21 @@
 package mygame;
 
+import java.nio.FloatBuffer;
 import java.util.*;
 
+import com.jme3.bounding.BoundingBox;
+import com.jme3.math.FastMath;
 import com.jme3.scene.Mesh;
 import com.jme3.math.Vector2f;
-import com.jme3.math.Vector3f;
 import com.jme3.math.Vector4f;
 
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
 import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.VertexBuffer.Usage;
 import com.jme3.util.BufferUtils;
 
-import com.jme3.math.FastMath;
-
-public class Tesseract extends Mesh {
+public class Tesseract extends Mesh implements ChangeTracked {
 
     //In 4 dimensional space, rotations are made around a plane
     //In 4 dimensional space, double rotations are also possible
@@ -38,42 +41,115 @@ public class Tesseract extends Mesh {
         This means I cannot recycle vertex points leaving us with a total of 192 vertices. (8 cubes * 6 squares * 4 vertices)
      */
     private Vector4f[] m_boxBounds = new Vector4f[16];
-    private Vector4f[] m_vertices4D = new Vector4f[192];
 
-    private Vector3f[] m_vertices = new Vector3f[192];
-    private Vector2f[] m_texCoords = new Vector2f[192];
-    private List<Integer> m_triangles = new ArrayList<Integer>();
+    //Only the 16 unique corners are rotated and projected, the 192 render vertices are then gathered from them
+    //The 4D and projected 3D points are kept as flat xyzw / xyz float arrays and transformed in place,
+    //so rotating and projecting every frame does not create any garbage
+    //The rest pose is never modified, the rotated corners are recomputed from it with the accumulated orientation
+    //so floating point error cannot build up in the shape itself
+    private float[] m_restCorners4D = new float[64]; //16 corners * 4 floats for XYZW
+    private float m_restRadius; //Distance of the farthest rest corner from the origin
+    private float[] m_corners4D = new float[64]; //16 corners * 4 floats for XYZW
+    private float[] m_projectedCorners = new float[48]; //16 corners * 3 floats for XYZ
+
+    //The position buffer is allocated once and streamed, every projection overwrites it in place
+    private FloatBuffer m_vertices; //192 vertices * 3 floats for XYZ, or 4 floats for XYZW when projected on the GPU
+    private VertexBuffer m_positionBuffer = new VertexBuffer(Type.Position);
+
+    //The topology and the colours are the same for every tesseract, whatever its size. They are built once when the
+    //class is loaded and every tesseract shares the same read-only Index, TexCoord, Color and TexCoord2 buffers,
+    //so a new tesseract only allocates its positions, on the heap and on the GPU
+    private static final int[] s_vertexCorners = new int[192]; //The corner each of the 192 render vertices is gathered from
+    private static final Vector2f[] s_texCoords = new Vector2f[192];
+    private static final int[] s_triangles = new int[288]; //8 cubes * 6 quads * 2 triangles * 3 indices
+    private static int s_triangleIndexCount = 0;
+
+    private static final float[] s_colors = new float[32]; //8 cubes * 4 floats for RGBA
+    private static final float[] s_vertexColors = new float[768]; //192 vertices * 4 floats for RGBA
+
+    private static final VertexBuffer s_indexBuffer = new VertexBuffer(Type.Index);
+    private static final VertexBuffer s_texCoordBuffer = new VertexBuffer(Type.TexCoord);
+    private static final VertexBuffer s_colorBuffer = new VertexBuffer(Type.Color);
+    private static final VertexBuffer s_cellIdBuffer = new VertexBuffer(Type.TexCoord2);
+
+    static {
+        InitColor();
+
+        PrepareVertices();
+        PrepareTexCoords();
+        PrepareTriangles();
+        PrepareColors();
 
-    private float[] m_colors = new float[32]; //8 cubes * 4 floats for RGBA
-    private float[] m_vertexColors = new float[768]; //192 vertices * 4 floats for RGBA
+        s_indexBuffer.setupData(Usage.Static, 3, Format.UnsignedInt, BufferUtils.createIntBuffer(s_triangles));
+        s_texCoordBuffer.setupData(Usage.Static, 2, Format.Float, BufferUtils.createFloatBuffer(s_texCoords));
+        s_colorBuffer.setupData(Usage.Static, 4, Format.Float, BufferUtils.createFloatBuffer(s_vertexColors));
+        s_cellIdBuffer.setupData(Usage.Static, 1, Format.Float, BufferUtils.createFloatBuffer(PrepareCellIds()));
+    }
     
-    //To keep the sense of depth from the 4 dimension, we use a stereographic projection
-    //The shadow of a 4 dimensional shape is 3 dimensional similar to the 2 dimensional shadow of a 3 dimensional shape
-    private boolean b_isStereographicProjection = true;
-    private float m_lightOnW = 50.f;
+    //Stereographic from a light on the W axis by default, see Projection4D
+    private Projection4D m_projection = new Projection4D(50.f);
+
+    //Every rotation is accumulated here
+    private Orientation4D m_orientation = new Orientation4D();
+
+    //Scale and translation in 4D applied after the orientation, set by a Geometry4D from its world transform
+    private Transform4D m_placement = new Transform4D();
+
+    //While culled by a ViewCuller4D the orientation and placement are still accumulated, but nothing is rotated or
+    //projected, the pose is brought up to date once the tesseract is in view again
+    private boolean b_isCulled = false;
+    private boolean b_isPoseStale = false;
+
+    //When projected on the GPU the rest pose is uploaded once as 4D positions and the Tesseract4D material
+    //rotates and projects it in the vertex shader, see Tesseract4DControl
+    private boolean b_isProjectedOnGpu;
+
+    //When batched, a TesseractBatch rotates and projects the corners on its worker threads and hands them back
+    private boolean b_isBatched = false;
+
+    //The bound is either the box around the 16 projected corners, refreshed with every projection, or a sphere that
+    //contains every orientation and only changes with the projection, see SetInvariantBound()
+    private boolean b_hasInvariantBound = false;
+    private BoundingBox m_cornerBound = new BoundingBox();
+
+    private int m_changeCount = 0;
 
     public Tesseract() {
         this(new Vector4f(1.f, 1.f, 1.f, 1.f));
     }
 
     public Tesseract(Vector4f i_boxSize) {
+        this(i_boxSize, false);
+    }
+
+    public Tesseract(Vector4f i_boxSize, boolean i_projectOnGpu) {
+        b_isProjectedOnGpu = i_projectOnGpu;
+
         InitVerts(i_boxSize);
-        InitColor();
 
-        PrepareVertices();
-        PrepareTexCoords();
-        PrepareTriangles();
-        PrepareColors();
+        this.setBuffer(s_indexBuffer);
+        this.setBuffer(s_texCoordBuffer);
+        this.setBuffer(s_colorBuffer);
+        this.setBuffer(s_cellIdBuffer);
 
-        int[] triangles = new int[m_triangles.size()];
-        for (int i = 0; i < m_triangles.size(); i++) {
-            triangles[i] = m_triangles.get(i);
+        if (b_isProjectedOnGpu) {
+            m_vertices = BufferUtils.createFloatBuffer(768);
+            for (int i = 0; i < 192; i++) {
+                m_vertices.put(m_restCorners4D, s_vertexCorners[i] * 4, 4);
+            }
+            m_vertices.flip();
+            m_positionBuffer.setupData(Usage.Static, 4, Format.Float, m_vertices);
+            this.setBuffer(m_positionBuffer);
+
+            b_hasInvariantBound = true;
+            UpdateInvariantBound();
+        } else {
+            m_vertices = BufferUtils.createFloatBuffer(576);
+            m_positionBuffer.setupData(Usage.Stream, 3, Format.Float, m_vertices);
+            this.setBuffer(m_positionBuffer);
+
+            Project();
         }
-        this.setBuffer(Type.Index, 3, BufferUtils.createIntBuffer(triangles));
-        this.setBuffer(Type.TexCoord, 2, BufferUtils.createFloatBuffer(m_texCoords));
-        this.setBuffer(Type.Color, 4, m_vertexColors);
-
-        Project();
     }
 
     private void InitVerts(Vector4f i_boxSize) {
@@ -93,339 +169,353 @@ public class Tesseract extends Mesh {
         m_boxBounds[13] = new Vector4f(i_boxSize.x, i_boxSize.y, -i_boxSize.z, i_boxSize.w);
         m_boxBounds[14] = new Vector4f(i_boxSize.x, -i_boxSize.y, -i_boxSize.z, i_boxSize.w);
         m_boxBounds[15] = new Vector4f(-i_boxSize.x, -i_boxSize.y, -i_boxSize.z, i_boxSize.w);
+
+        for (int i = 0; i < 16; i++) {
+            m_restCorners4D[i * 4] = m_boxBounds[i].x;
+            m_restCorners4D[i * 4 + 1] = m_boxBounds[i].y;
+            m_restCorners4D[i * 4 + 2] = m_boxBounds[i].z;
+            m_restCorners4D[i * 4 + 3] = m_boxBounds[i].w;
+        }
+        System.arraycopy(m_restCorners4D, 0, m_corners4D, 0, 64);
+
+        m_restRadius = 0.f;
+        for (int i = 0; i < 16; i++) {
+            m_restRadius = Math.max(m_restRadius, m_boxBounds[i].length());
+        }
     }
 
-    private void InitColor() {
+    private static void InitColor() {
         //i represents the cube we are assigning color to
         for (int i = 0; i < 8; i++) {
             switch (i) {
                 case 0: {
-                    m_colors[i * 4] = 0.75f; //Red Value
-                    m_colors[i * 4 + 1] = 0.75f; //Green Value
-                    m_colors[i * 4 + 2] = 0.75f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 0.75f; //Red Value
+                    s_colors[i * 4 + 1] = 0.75f; //Green Value
+                    s_colors[i * 4 + 2] = 0.75f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
 
                 case 1: {
-                    m_colors[i * 4] = 1.f; //Red Value
-                    m_colors[i * 4 + 1] = 0.f; //Green Value
-                    m_colors[i * 4 + 2] = 0.f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 1.f; //Red Value
+                    s_colors[i * 4 + 1] = 0.f; //Green Value
+                    s_colors[i * 4 + 2] = 0.f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
 
                 case 2: {
-                    m_colors[i * 4] = 0.f; //Red Value
-                    m_colors[i * 4 + 1] = 1.f; //Green Value
-                    m_colors[i * 4 + 2] = 0.f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 0.f; //Red Value
+                    s_colors[i * 4 + 1] = 1.f; //Green Value
+                    s_colors[i * 4 + 2] = 0.f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
 
                 case 3: {
-                    m_colors[i * 4] = 0.f; //Red Value
-                    m_colors[i * 4 + 1] = 0.f; //Green Value
-                    m_colors[i * 4 + 2] = 1.f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 0.f; //Red Value
+                    s_colors[i * 4 + 1] = 0.f; //Green Value
+                    s_colors[i * 4 + 2] = 1.f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
 
                 case 4: {
-                    m_colors[i * 4] = 1.f; //Red Value
-                    m_colors[i * 4 + 1] = 1.f; //Green Value
-                    m_colors[i * 4 + 2] = 0.f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 1.f; //Red Value
+                    s_colors[i * 4 + 1] = 1.f; //Green Value
+                    s_colors[i * 4 + 2] = 0.f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
 
                 case 5: {
-                    m_colors[i * 4] = 1.f; //Red Value
-                    m_colors[i * 4 + 1] = 0.f; //Green Value
-                    m_colors[i * 4 + 2] = 1.f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 1.f; //Red Value
+                    s_colors[i * 4 + 1] = 0.f; //Green Value
+                    s_colors[i * 4 + 2] = 1.f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
 
                 case 6: {
-                    m_colors[i * 4] = 0.f; //Red Value
-                    m_colors[i * 4 + 1] = 1.f; //Green Value
-                    m_colors[i * 4 + 2] = 1.f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 0.f; //Red Value
+                    s_colors[i * 4 + 1] = 1.f; //Green Value
+                    s_colors[i * 4 + 2] = 1.f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
 
                 case 7: {
-                    m_colors[i * 4] = 0.25f; //Red Value
-                    m_colors[i * 4 + 1] = 0.25f; //Green Value
-                    m_colors[i * 4 + 2] = 0.25f; //Blue Value
-                    m_colors[i * 4 + 3] = 1.f; //Alpha Value
+                    s_colors[i * 4] = 0.25f; //Red Value
+                    s_colors[i * 4 + 1] = 0.25f; //Green Value
+                    s_colors[i * 4 + 2] = 0.25f; //Blue Value
+                    s_colors[i * 4 + 3] = 1.f; //Alpha Value
                     break;
                 }
             }
         }
     }
 
-    private void PrepareVertices() {
+    //Fills the gather table that maps each of the 192 render vertices to one of the 16 corners
+    private static void PrepareVertices() {
         //Cube 0
-        m_vertices4D[0] = m_boxBounds[0];
-        m_vertices4D[1] = m_boxBounds[1];
-        m_vertices4D[2] = m_boxBounds[2];
-        m_vertices4D[3] = m_boxBounds[3];
-
-        m_vertices4D[4] = m_boxBounds[4];
-        m_vertices4D[5] = m_boxBounds[0];
-        m_vertices4D[6] = m_boxBounds[3];
-        m_vertices4D[7] = m_boxBounds[7];
-
-        m_vertices4D[8] = m_boxBounds[5];
-        m_vertices4D[9] = m_boxBounds[1];
-        m_vertices4D[10] = m_boxBounds[0];
-        m_vertices4D[11] = m_boxBounds[4];
-
-        m_vertices4D[12] = m_boxBounds[6];
-        m_vertices4D[13] = m_boxBounds[2];
-        m_vertices4D[14] = m_boxBounds[1];
-        m_vertices4D[15] = m_boxBounds[5];
-
-        m_vertices4D[16] = m_boxBounds[7];
-        m_vertices4D[17] = m_boxBounds[3];
-        m_vertices4D[18] = m_boxBounds[2];
-        m_vertices4D[19] = m_boxBounds[6];
-
-        m_vertices4D[20] = m_boxBounds[7];
-        m_vertices4D[21] = m_boxBounds[6];
-        m_vertices4D[22] = m_boxBounds[5];
-        m_vertices4D[23] = m_boxBounds[4];
+        s_vertexCorners[0] = 0;
+        s_vertexCorners[1] = 1;
+        s_vertexCorners[2] = 2;
+        s_vertexCorners[3] = 3;
+
+        s_vertexCorners[4] = 4;
+        s_vertexCorners[5] = 0;
+        s_vertexCorners[6] = 3;
+        s_vertexCorners[7] = 7;
+
+        s_vertexCorners[8] = 5;
+        s_vertexCorners[9] = 1;
+        s_vertexCorners[10] = 0;
+        s_vertexCorners[11] = 4;
+
+        s_vertexCorners[12] = 6;
+        s_vertexCorners[13] = 2;
+        s_vertexCorners[14] = 1;
+        s_vertexCorners[15] = 5;
+
+        s_vertexCorners[16] = 7;
+        s_vertexCorners[17] = 3;
+        s_vertexCorners[18] = 2;
+        s_vertexCorners[19] = 6;
+
+        s_vertexCorners[20] = 7;
+        s_vertexCorners[21] = 6;
+        s_vertexCorners[22] = 5;
+        s_vertexCorners[23] = 4;
 
         //Cube 1
-        m_vertices4D[24] = m_boxBounds[8];
-        m_vertices4D[25] = m_boxBounds[9];
-        m_vertices4D[26] = m_boxBounds[10];
-        m_vertices4D[27] = m_boxBounds[11];
-
-        m_vertices4D[28] = m_boxBounds[12];
-        m_vertices4D[29] = m_boxBounds[8];
-        m_vertices4D[30] = m_boxBounds[11];
-        m_vertices4D[31] = m_boxBounds[15];
-
-        m_vertices4D[32] = m_boxBounds[13];
-        m_vertices4D[33] = m_boxBounds[9];
-        m_vertices4D[34] = m_boxBounds[8];
-        m_vertices4D[35] = m_boxBounds[12];
-
-        m_vertices4D[36] = m_boxBounds[14];
-        m_vertices4D[37] = m_boxBounds[10];
-        m_vertices4D[38] = m_boxBounds[9];
-        m_vertices4D[39] = m_boxBounds[13];
-
-        m_vertices4D[40] = m_boxBounds[15];
-        m_vertices4D[41] = m_boxBounds[11];
-        m_vertices4D[42] = m_boxBounds[10];
-        m_vertices4D[43] = m_boxBounds[14];
-
-        m_vertices4D[44] = m_boxBounds[15];
-        m_vertices4D[45] = m_boxBounds[14];
-        m_vertices4D[46] = m_boxBounds[13];
-        m_vertices4D[47] = m_boxBounds[12];
+        s_vertexCorners[24] = 8;
+        s_vertexCorners[25] = 9;
+        s_vertexCorners[26] = 10;
+        s_vertexCorners[27] = 11;
+
+        s_vertexCorners[28] = 12;
+        s_vertexCorners[29] = 8;
+        s_vertexCorners[30] = 11;
+        s_vertexCorners[31] = 15;
+
+        s_vertexCorners[32] = 13;
+        s_vertexCorners[33] = 9;
+        s_vertexCorners[34] = 8;
+        s_vertexCorners[35] = 12;
+
+        s_vertexCorners[36] = 14;
+        s_vertexCorners[37] = 10;
+        s_vertexCorners[38] = 9;
+        s_vertexCorners[39] = 13;
+
+        s_vertexCorners[40] = 15;
+        s_vertexCorners[41] = 11;
+        s_vertexCorners[42] = 10;
+        s_vertexCorners[43] = 14;
+
+        s_vertexCorners[44] = 15;
+        s_vertexCorners[45] = 14;
+        s_vertexCorners[46] = 13;
+        s_vertexCorners[47] = 12;
 
         //Cube 2
-        m_vertices4D[48] = m_boxBounds[0];
-        m_vertices4D[49] = m_boxBounds[1];
-        m_vertices4D[50] = m_boxBounds[2];
-        m_vertices4D[51] = m_boxBounds[3];
-
-        m_vertices4D[52] = m_boxBounds[8];
-        m_vertices4D[53] = m_boxBounds[0];
-        m_vertices4D[54] = m_boxBounds[3];
-        m_vertices4D[55] = m_boxBounds[11];
-
-        m_vertices4D[56] = m_boxBounds[9];
-        m_vertices4D[57] = m_boxBounds[1];
-        m_vertices4D[58] = m_boxBounds[0];
-        m_vertices4D[59] = m_boxBounds[8];
-
-        m_vertices4D[60] = m_boxBounds[10];
-        m_vertices4D[61] = m_boxBounds[2];
-        m_vertices4D[62] = m_boxBounds[1];
-        m_vertices4D[63] = m_boxBounds[9];
-
-        m_vertices4D[64] = m_boxBounds[11];
-        m_vertices4D[65] = m_boxBounds[3];
-        m_vertices4D[66] = m_boxBounds[2];
-        m_vertices4D[67] = m_boxBounds[10];
-
-        m_vertices4D[68] = m_boxBounds[11];
-        m_vertices4D[69] = m_boxBounds[10];
-        m_vertices4D[70] = m_boxBounds[9];
-        m_vertices4D[71] = m_boxBounds[8];
+        s_vertexCorners[48] = 0;
+        s_vertexCorners[49] = 1;
+        s_vertexCorners[50] = 2;
+        s_vertexCorners[51] = 3;
+
+        s_vertexCorners[52] = 8;
+        s_vertexCorners[53] = 0;
+        s_vertexCorners[54] = 3;
+        s_vertexCorners[55] = 11;
+
+        s_vertexCorners[56] = 9;
+        s_vertexCorners[57] = 1;
+        s_vertexCorners[58] = 0;
+        s_vertexCorners[59] = 8;
+
+        s_vertexCorners[60] = 10;
+        s_vertexCorners[61] = 2;
+        s_vertexCorners[62] = 1;
+        s_vertexCorners[63] = 9;
+
+        s_vertexCorners[64] = 11;
+        s_vertexCorners[65] = 3;
+        s_vertexCorners[66] = 2;
+        s_vertexCorners[67] = 10;
+
+        s_vertexCorners[68] = 11;
+        s_vertexCorners[69] = 10;
+        s_vertexCorners[70] = 9;
+        s_vertexCorners[71] = 8;
 
         //Cube 3
-        m_vertices4D[72] = m_boxBounds[12];
-        m_vertices4D[73] = m_boxBounds[13];
-        m_vertices4D[74] = m_boxBounds[14];
-        m_vertices4D[75] = m_boxBounds[15];
-
-        m_vertices4D[76] = m_boxBounds[4];
-        m_vertices4D[77] = m_boxBounds[12];
-        m_vertices4D[78] = m_boxBounds[15];
-        m_vertices4D[79] = m_boxBounds[7];
-
-        m_vertices4D[80] = m_boxBounds[5];
-        m_vertices4D[81] = m_boxBounds[13];
-        m_vertices4D[82] = m_boxBounds[12];
-        m_vertices4D[83] = m_boxBounds[4];
-
-        m_vertices4D[84] = m_boxBounds[6];
-        m_vertices4D[85] = m_boxBounds[14];
-        m_vertices4D[86] = m_boxBounds[13];
-        m_vertices4D[87] = m_boxBounds[5];
-
-        m_vertices4D[88] = m_boxBounds[7];
-        m_vertices4D[89] = m_boxBounds[15];
-        m_vertices4D[90] = m_boxBounds[14];
-        m_vertices4D[91] = m_boxBounds[6];
-
-        m_vertices4D[92] = m_boxBounds[7];
-        m_vertices4D[93] = m_boxBounds[6];
-        m_vertices4D[94] = m_boxBounds[5];
-        m_vertices4D[95] = m_boxBounds[4];
+        s_vertexCorners[72] = 12;
+        s_vertexCorners[73] = 13;
+        s_vertexCorners[74] = 14;
+        s_vertexCorners[75] = 15;
+
+        s_vertexCorners[76] = 4;
+        s_vertexCorners[77] = 12;
+        s_vertexCorners[78] = 15;
+        s_vertexCorners[79] = 7;
+
+        s_vertexCorners[80] = 5;
+        s_vertexCorners[81] = 13;
+        s_vertexCorners[82] = 12;
+        s_vertexCorners[83] = 4;
+
+        s_vertexCorners[84] = 6;
+        s_vertexCorners[85] = 14;
+        s_vertexCorners[86] = 13;
+        s_vertexCorners[87] = 5;
+
+        s_vertexCorners[88] = 7;
+        s_vertexCorners[89] = 15;
+        s_vertexCorners[90] = 14;
+        s_vertexCorners[91] = 6;
+
+        s_vertexCorners[92] = 7;
+        s_vertexCorners[93] = 6;
+        s_vertexCorners[94] = 5;
+        s_vertexCorners[95] = 4;
 
         //Cube 4
-        m_vertices4D[96] = m_boxBounds[0];
-        m_vertices4D[97] = m_boxBounds[8];
-        m_vertices4D[98] = m_boxBounds[11];
-        m_vertices4D[99] = m_boxBounds[3];
-
-        m_vertices4D[100] = m_boxBounds[4];
-        m_vertices4D[101] = m_boxBounds[0];
-        m_vertices4D[102] = m_boxBounds[3];
-        m_vertices4D[103] = m_boxBounds[7];
-
-        m_vertices4D[104] = m_boxBounds[12];
-        m_vertices4D[105] = m_boxBounds[8];
-        m_vertices4D[106] = m_boxBounds[0];
-        m_vertices4D[107] = m_boxBounds[4];
-
-        m_vertices4D[108] = m_boxBounds[15];
-        m_vertices4D[109] = m_boxBounds[11];
-        m_vertices4D[110] = m_boxBounds[8];
-        m_vertices4D[111] = m_boxBounds[12];
-
-        m_vertices4D[112] = m_boxBounds[7];
-        m_vertices4D[113] = m_boxBounds[3];
-        m_vertices4D[114] = m_boxBounds[11];
-        m_vertices4D[115] = m_boxBounds[15];
-
-        m_vertices4D[116] = m_boxBounds[7];
-        m_vertices4D[117] = m_boxBounds[15];
-        m_vertices4D[118] = m_boxBounds[12];
-        m_vertices4D[119] = m_boxBounds[4];
+        s_vertexCorners[96] = 0;
+        s_vertexCorners[97] = 8;
+        s_vertexCorners[98] = 11;
+        s_vertexCorners[99] = 3;
+
+        s_vertexCorners[100] = 4;
+        s_vertexCorners[101] = 0;
+        s_vertexCorners[102] = 3;
+        s_vertexCorners[103] = 7;
+
+        s_vertexCorners[104] = 12;
+        s_vertexCorners[105] = 8;
+        s_vertexCorners[106] = 0;
+        s_vertexCorners[107] = 4;
+
+        s_vertexCorners[108] = 15;
+        s_vertexCorners[109] = 11;
+        s_vertexCorners[110] = 8;
+        s_vertexCorners[111] = 12;
+
+        s_vertexCorners[112] = 7;
+        s_vertexCorners[113] = 3;
+        s_vertexCorners[114] = 11;
+        s_vertexCorners[115] = 15;
+
+        s_vertexCorners[116] = 7;
+        s_vertexCorners[117] = 15;
+        s_vertexCorners[118] = 12;
+        s_vertexCorners[119] = 4;
 
         //Cube 5
-        m_vertices4D[120] = m_boxBounds[0];
-        m_vertices4D[121] = m_boxBounds[1];
-        m_vertices4D[122] = m_boxBounds[9];
-        m_vertices4D[123] = m_boxBounds[8];
-
-        m_vertices4D[124] = m_boxBounds[4];
-        m_vertices4D[125] = m_boxBounds[0];
-        m_vertices4D[126] = m_boxBounds[8];
-        m_vertices4D[127] = m_boxBounds[12];
-
-        m_vertices4D[128] = m_boxBounds[5];
-        m_vertices4D[129] = m_boxBounds[1];
-        m_vertices4D[130] = m_boxBounds[0];
-        m_vertices4D[131] = m_boxBounds[4];
-
-        m_vertices4D[132] = m_boxBounds[13];
-        m_vertices4D[133] = m_boxBounds[9];
-        m_vertices4D[134] = m_boxBounds[1];
-        m_vertices4D[135] = m_boxBounds[5];
-
-        m_vertices4D[136] = m_boxBounds[12];
-        m_vertices4D[137] = m_boxBounds[8];
-        m_vertices4D[138] = m_boxBounds[9];
-        m_vertices4D[139] = m_boxBounds[13];
-
-        m_vertices4D[140] = m_boxBounds[12];
-        m_vertices4D[141] = m_boxBounds[13];
-        m_vertices4D[142] = m_boxBounds[5];
-        m_vertices4D[143] = m_boxBounds[4];
+        s_vertexCorners[120] = 0;
+        s_vertexCorners[121] = 1;
+        s_vertexCorners[122] = 9;
+        s_vertexCorners[123] = 8;
+
+        s_vertexCorners[124] = 4;
+        s_vertexCorners[125] = 0;
+        s_vertexCorners[126] = 8;
+        s_vertexCorners[127] = 12;
+
+        s_vertexCorners[128] = 5;
+        s_vertexCorners[129] = 1;
+        s_vertexCorners[130] = 0;
+        s_vertexCorners[131] = 4;
+
+        s_vertexCorners[132] = 13;
+        s_vertexCorners[133] = 9;
+        s_vertexCorners[134] = 1;
+        s_vertexCorners[135] = 5;
+
+        s_vertexCorners[136] = 12;
+        s_vertexCorners[137] = 8;
+        s_vertexCorners[138] = 9;
+        s_vertexCorners[139] = 13;
+
+        s_vertexCorners[140] = 12;
+        s_vertexCorners[141] = 13;
+        s_vertexCorners[142] = 5;
+        s_vertexCorners[143] = 4;
 
         //Cube 6
-        m_vertices4D[144] = m_boxBounds[9];
-        m_vertices4D[145] = m_boxBounds[1];
-        m_vertices4D[146] = m_boxBounds[2];
-        m_vertices4D[147] = m_boxBounds[10];
-
-        m_vertices4D[148] = m_boxBounds[13];
-        m_vertices4D[149] = m_boxBounds[9];
-        m_vertices4D[150] = m_boxBounds[10];
-        m_vertices4D[151] = m_boxBounds[14];
-
-        m_vertices4D[152] = m_boxBounds[5];
-        m_vertices4D[153] = m_boxBounds[1];
-        m_vertices4D[154] = m_boxBounds[9];
-        m_vertices4D[155] = m_boxBounds[13];
-
-        m_vertices4D[156] = m_boxBounds[6];
-        m_vertices4D[157] = m_boxBounds[2];
-        m_vertices4D[158] = m_boxBounds[1];
-        m_vertices4D[159] = m_boxBounds[5];
-
-        m_vertices4D[160] = m_boxBounds[14];
-        m_vertices4D[161] = m_boxBounds[10];
-        m_vertices4D[162] = m_boxBounds[2];
-        m_vertices4D[163] = m_boxBounds[6];
-
-        m_vertices4D[164] = m_boxBounds[14];
-        m_vertices4D[165] = m_boxBounds[6];
-        m_vertices4D[166] = m_boxBounds[5];
-        m_vertices4D[167] = m_boxBounds[13];
+        s_vertexCorners[144] = 9;
+        s_vertexCorners[145] = 1;
+        s_vertexCorners[146] = 2;
+        s_vertexCorners[147] = 10;
+
+        s_vertexCorners[148] = 13;
+        s_vertexCorners[149] = 9;
+        s_vertexCorners[150] = 10;
+        s_vertexCorners[151] = 14;
+
+        s_vertexCorners[152] = 5;
+        s_vertexCorners[153] = 1;
+        s_vertexCorners[154] = 9;
+        s_vertexCorners[155] = 13;
+
+        s_vertexCorners[156] = 6;
+        s_vertexCorners[157] = 2;
+        s_vertexCorners[158] = 1;
+        s_vertexCorners[159] = 5;
+
+        s_vertexCorners[160] = 14;
+        s_vertexCorners[161] = 10;
+        s_vertexCorners[162] = 2;
+        s_vertexCorners[163] = 6;
+
+        s_vertexCorners[164] = 14;
+        s_vertexCorners[165] = 6;
+        s_vertexCorners[166] = 5;
+        s_vertexCorners[167] = 13;
 
         //Cube 7
-        m_vertices4D[168] = m_boxBounds[11];
-        m_vertices4D[169] = m_boxBounds[10];
-        m_vertices4D[170] = m_boxBounds[2];
-        m_vertices4D[171] = m_boxBounds[3];
-
-        m_vertices4D[172] = m_boxBounds[15];
-        m_vertices4D[173] = m_boxBounds[11];
-        m_vertices4D[174] = m_boxBounds[3];
-        m_vertices4D[175] = m_boxBounds[7];
-
-        m_vertices4D[176] = m_boxBounds[14];
-        m_vertices4D[177] = m_boxBounds[10];
-        m_vertices4D[178] = m_boxBounds[11];
-        m_vertices4D[179] = m_boxBounds[15];
-
-        m_vertices4D[180] = m_boxBounds[6];
-        m_vertices4D[181] = m_boxBounds[2];
-        m_vertices4D[182] = m_boxBounds[10];
-        m_vertices4D[183] = m_boxBounds[14];
-
-        m_vertices4D[184] = m_boxBounds[7];
-        m_vertices4D[185] = m_boxBounds[3];
-        m_vertices4D[186] = m_boxBounds[2];
-        m_vertices4D[187] = m_boxBounds[6];
-
-        m_vertices4D[188] = m_boxBounds[7];
-        m_vertices4D[189] = m_boxBounds[6];
-        m_vertices4D[190] = m_boxBounds[14];
-        m_vertices4D[191] = m_boxBounds[15];
-    }
-
-    private void PrepareTexCoords() {
+        s_vertexCorners[168] = 11;
+        s_vertexCorners[169] = 10;
+        s_vertexCorners[170] = 2;
+        s_vertexCorners[171] = 3;
+
+        s_vertexCorners[172] = 15;
+        s_vertexCorners[173] = 11;
+        s_vertexCorners[174] = 3;
+        s_vertexCorners[175] = 7;
+
+        s_vertexCorners[176] = 14;
+        s_vertexCorners[177] = 10;
+        s_vertexCorners[178] = 11;
+        s_vertexCorners[179] = 15;
+
+        s_vertexCorners[180] = 6;
+        s_vertexCorners[181] = 2;
+        s_vertexCorners[182] = 10;
+        s_vertexCorners[183] = 14;
+
+        s_vertexCorners[184] = 7;
+        s_vertexCorners[185] = 3;
+        s_vertexCorners[186] = 2;
+        s_vertexCorners[187] = 6;
+
+        s_vertexCorners[188] = 7;
+        s_vertexCorners[189] = 6;
+        s_vertexCorners[190] = 14;
+        s_vertexCorners[191] = 15;
+    }
+
+    private static void PrepareTexCoords() {
         for (int i = 0; i < 48; i++) {
-            m_texCoords[i * 4] = new Vector2f(0, 0);
-            m_texCoords[i * 4 + 1] = new Vector2f(1, 0);
-            m_texCoords[i * 4 + 2] = new Vector2f(0, 1);
-            m_texCoords[i * 4 + 3] = new Vector2f(1, 1);
+            s_texCoords[i * 4] = new Vector2f(0, 0);
+            s_texCoords[i * 4 + 1] = new Vector2f(1, 0);
+            s_texCoords[i * 4 + 2] = new Vector2f(0, 1);
+            s_texCoords[i * 4 + 3] = new Vector2f(1, 1);
         }
     }
 
-    private void PrepareTriangles() {
+    private static void PrepareTriangles() {
         //Cube 0
         ConvertQuadToTriangles(3, 2, 1, 0);
         ConvertQuadToTriangles(7, 6, 5, 4);
@@ -491,143 +581,297 @@ public class Tesseract extends Mesh {
         ConvertQuadToTriangles(188, 189, 190, 191);
     }
 
-    private void PrepareColors() {
+    private static void PrepareColors() {
         for (int i = 0; i < 8; i++) {
             for (int j = i * 24; j < i * 24 + 24; j++) {
-                m_vertexColors[j * 4] = m_colors[i];
-                m_vertexColors[j * 4 + 1] = m_colors[i + 1];
-                m_vertexColors[j * 4 + 2] = m_colors[i + 2];
-                m_vertexColors[j * 4 + 3] = m_colors[i + 3];
+                s_vertexColors[j * 4] = s_colors[i * 4];
+                s_vertexColors[j * 4 + 1] = s_colors[i * 4 + 1];
+                s_vertexColors[j * 4 + 2] = s_colors[i * 4 + 2];
+                s_vertexColors[j * 4 + 3] = s_colors[i * 4 + 3];
             }
         }
     }
 
-    //Project the points from 4D space into 3D space and update the mesh
-    private void Project() {
+    //The cube of every render vertex, read by the materials that colour the cubes from a CellPalette
+    private static float[] PrepareCellIds() {
+        float[] cellIds = new float[192];
         for (int i = 0; i < 192; i++) {
-            if (b_isStereographicProjection) {
-                m_vertices[i] = new Vector3f(
-                        m_vertices4D[i].x * m_lightOnW / (m_lightOnW - m_vertices4D[i].w),
-                        m_vertices4D[i].y * m_lightOnW / (m_lightOnW - m_vertices4D[i].w),
-                        m_vertices4D[i].z * m_lightOnW / (m_lightOnW - m_vertices4D[i].w));
-            } else {
-                m_vertices[i] = new Vector3f(m_vertices4D[i].x, m_vertices4D[i].y, m_vertices4D[i].z);
+            cellIds[i] = i / 24;
+        }
+        return cellIds;
+    }
+
+    //Project the points from 4D space into 3D space and update the mesh
+    //Package private so the benchmarks can measure it on its own
+    void Project() {
+        long start = StageProfiler.Begin(StageProfiler.Stage.Project);
+        for (int i = 0; i < 16; i++) {
+            float x = m_corners4D[i * 4];
+            float y = m_corners4D[i * 4 + 1];
+            float z = m_corners4D[i * 4 + 2];
+            if (m_projection.IsStereographic()) {
+                float lightOnW = m_projection.GetLightOnW();
+                float scale = lightOnW / (lightOnW - m_corners4D[i * 4 + 3]);
+                x *= scale;
+                y *= scale;
+                z *= scale;
             }
+            m_projectedCorners[i * 3] = x;
+            m_projectedCorners[i * 3 + 1] = y;
+            m_projectedCorners[i * 3 + 2] = z;
+        }
+        StageProfiler.End(StageProfiler.Stage.Project, start);
+
+        UploadVertices();
+    }
+
+    //Gathers the projected corners into the 192 render vertices and streams them to the position buffer
+    private void UploadVertices() {
+        long start = StageProfiler.Begin(StageProfiler.Stage.Upload);
+        m_vertices.clear();
+        for (int i = 0; i < 192; i++) {
+            m_vertices.put(m_projectedCorners, s_vertexCorners[i] * 3, 3);
         }
+        m_vertices.flip();
 
-        this.setBuffer(Type.Position, 3, BufferUtils.createFloatBuffer(m_vertices));
+        m_positionBuffer.updateData(m_vertices);
+        StageProfiler.End(StageProfiler.Stage.Upload, start);
+
+        if (b_hasInvariantBound) return;
+
+        start = StageProfiler.Begin(StageProfiler.Stage.UpdateBound);
         this.updateBound();
+        StageProfiler.End(StageProfiler.Stage.UpdateBound, start);
+    }
+
+    //Every render vertex is one of the 16 corners, so they bound the mesh as tightly as the 192 vertices
+    //Geometry.updateModelBound() calls this, so refreshing the world bound of the geometry is cheap as well
+    @Override
+    public void updateBound() {
+        if (b_hasInvariantBound) {
+            UpdateInvariantBound();
+            return;
+        }
+
+        float minX = m_projectedCorners[0], minY = m_projectedCorners[1], minZ = m_projectedCorners[2];
+        float maxX = minX, maxY = minY, maxZ = minZ;
+        for (int i = 1; i < 16; i++) {
+            float x = m_projectedCorners[i * 3];
+            float y = m_projectedCorners[i * 3 + 1];
+            float z = m_projectedCorners[i * 3 + 2];
+            minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+            minZ = Math.min(minZ, z); maxZ = Math.max(maxZ, z);
+        }
+        m_cornerBound.setCenter((minX + maxX) * 0.5f, (minY + maxY) * 0.5f, (minZ + maxZ) * 0.5f);
+        m_cornerBound.setXExtent((maxX - minX) * 0.5f);
+        m_cornerBound.setYExtent((maxY - minY) * 0.5f);
+        m_cornerBound.setZExtent((maxZ - minZ) * 0.5f);
+        this.setBound(m_cornerBound);
     }
 
-    private void ConvertQuadToTriangles(int i_v0, int i_v1, int i_v2, int i_v3) {
-        m_triangles.add(i_v0);
-        m_triangles.add(i_v1);
-        m_triangles.add(i_v3);
+    private static void ConvertQuadToTriangles(int i_v0, int i_v1, int i_v2, int i_v3) {
+        s_triangles[s_triangleIndexCount++] = i_v0;
+        s_triangles[s_triangleIndexCount++] = i_v1;
+        s_triangles[s_triangleIndexCount++] = i_v3;
 
-        m_triangles.add(i_v1);
-        m_triangles.add(i_v2);
-        m_triangles.add(i_v3);
+        s_triangles[s_triangleIndexCount++] = i_v1;
+        s_triangles[s_triangleIndexCount++] = i_v2;
+        s_triangles[s_triangleIndexCount++] = i_v3;
     }
-    
+
     public void Rotate(float i_angle, RotationalPlane i_rotationPlane) {
-        if(i_rotationPlane == RotationalPlane.None) return;
-        
-        float x, y, z, w;
-        switch (i_rotationPlane) {
-            case XY: {
-                for (int i = 0; i < 192; i++) {
-                    x = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y;
-                    y = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y;
-                    m_vertices4D[i] = new Vector4f(x, y, m_vertices4D[i].z, m_vertices4D[i].w);
-                }
-                break;
-            }
+        if (!m_orientation.Rotate(i_angle, i_rotationPlane)) return;
 
-            case XZ: {
-                for (int i = 0; i < 192; i++) {
-                    x = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    z = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    m_vertices4D[i] = new Vector4f(x, m_vertices4D[i].y, z, m_vertices4D[i].w);
-                }
-                break;
-            }
+        m_changeCount++;
+        ApplyOrientation();
+    }
 
-            case YZ: {
-                for (int i = 0; i < 192; i++) {
-                    y = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    z = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    m_vertices4D[i] = new Vector4f(m_vertices4D[i].x, y, z, m_vertices4D[i].w);
-                }
-                break;
-            }
+    //Applies an arbitrary 4D transformation, e.g. several simultaneous plane rotations composed into one matrix
+    public void Rotate(Matrix4D i_rotation) {
+        m_orientation.Rotate(i_rotation);
 
-            case XW: {
-                for (int i = 0; i < 192; i++) {
-                    x = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    w = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    m_vertices4D[i] = new Vector4f(x, m_vertices4D[i].y, m_vertices4D[i].z, w);
-                }
-                break;
-            }
+        m_changeCount++;
+        ApplyOrientation();
+    }
 
-            case YW: {
-                for (int i = 0; i < 192; i++) {
-                    y = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    w = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    m_vertices4D[i] = new Vector4f(m_vertices4D[i].x, y, m_vertices4D[i].z, w);
-                }
-                break;
-            }
+    //Read only, change it with Rotate() or SetOrientation() so the change is counted and the vertices follow
+    public Matrix4D GetOrientation() {
+        return m_orientation.Get();
+    }
 
-            case ZW: {
-                for (int i = 0; i < 192; i++) {
-                    z = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    w = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    m_vertices4D[i] = new Vector4f(m_vertices4D[i].x, m_vertices4D[i].y, z, w);
-                }
-                break;
-            }
+    //Replaces the accumulated orientation, the tesseract is posed from its rest pose again
+    public void SetOrientation(Matrix4D i_orientation) {
+        m_orientation.Set(i_orientation);
 
-            case XYZW: {
-                for (int i = 0; i < 192; i++) {
-                    x = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y;
-                    y = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y;
-                    z = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    w = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    m_vertices4D[i] = new Vector4f(x, y, z, w);
-                }
-                break;
-            }
+        m_changeCount++;
+        ApplyOrientation();
+    }
 
-            case XZYW: {
-                for (int i = 0; i < 192; i++) {
-                    x = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    z = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    y = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    w = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    m_vertices4D[i] = new Vector4f(x, y, z, w);
-                }
-                break;
-            }
+    //Poses the tesseract with a whole 4D transform, its rotation replaces the accumulated orientation.
+    //Only the CPU projection places the tesseract, the shader and the batch only know about the orientation
+    public void SetTransform4D(Transform4D i_transform) {
+        if (b_isProjectedOnGpu || b_isBatched) {
+            throw new IllegalStateException("Only a tesseract projected on the CPU can be translated and scaled in 4D");
+        }
+        m_placement.Set(i_transform);
+        m_orientation.Set(i_transform.GetRotation());
 
-            case YZXW: {
-                for (int i = 0; i < 192; i++) {
-                    y = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    z = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].y + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].z;
-                    x = FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x - FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    w = FastMath.sin(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].x + FastMath.cos(i_angle * FastMath.DEG_TO_RAD) * m_vertices4D[i].w;
-                    m_vertices4D[i] = new Vector4f(x, y, z, w);
-                }
-                break;
-            }
+        m_changeCount++;
+        if (b_hasInvariantBound) {
+            UpdateInvariantBound();
         }
+        ApplyOrientation();
+    }
+
+    private void ApplyOrientation() {
+        //The shader or the batch reads the orientation directly, there is no per-vertex work left here
+        if (b_isProjectedOnGpu || b_isBatched) return;
+        if (b_isCulled) {
+            b_isPoseStale = true;
+            return;
+        }
+
+        long start = StageProfiler.Begin(StageProfiler.Stage.Rotate);
+        m_orientation.Get().Transform(m_restCorners4D, 0, m_corners4D, 0, 16);
+        m_placement.Place(m_corners4D, 0, 16);
+        StageProfiler.End(StageProfiler.Stage.Rotate, start);
 
         Project();
     }
     
     public void ToggleProjection()
     {
-        b_isStereographicProjection = !b_isStereographicProjection;
-        Project();
+        m_projection.Toggle();
+        m_changeCount++;
+        if (b_hasInvariantBound) {
+            UpdateInvariantBound();
+        }
+        if (b_isProjectedOnGpu || b_isBatched) return;
+        if (b_isCulled) {
+            b_isPoseStale = true;
+        } else {
+            Project();
+        }
+    }
+
+    //With an invariant bound the culling and the world bound of the geometry stop changing every frame, at the cost
+    //of a looser bound. A tesseract projected on the GPU always has one, the mesh never sees its projected vertices
+    public void SetInvariantBound(boolean i_hasInvariantBound) {
+        if (b_isProjectedOnGpu || i_hasInvariantBound == b_hasInvariantBound) return;
+
+        b_hasInvariantBound = i_hasInvariantBound;
+        this.updateBound();
+    }
+
+    public boolean HasInvariantBound() {
+        return b_hasInvariantBound;
+    }
+
+    //A placed tesseract stays within the 4D sphere of radius s * r around its translation t
+    private void UpdateInvariantBound() {
+        float tx = m_placement.GetTranslation(0);
+        float ty = m_placement.GetTranslation(1);
+        float tz = m_placement.GetTranslation(2);
+        this.setBound(m_projection.InvariantBound(FastMath.sqrt(tx * tx + ty * ty + tz * tz),
+                m_placement.GetTranslation(3), GetRestRadius() * m_placement.GetScale()));
+    }
+
+    //Radius of the 4D sphere around the origin that contains the tesseract in any orientation
+    public float GetRestRadius() {
+        return m_restRadius;
+    }
+
+    //The scale and translation set by SetTransform4D(), the bounding hypersphere is centred on the translation
+    public Transform4D GetPlacement() {
+        return m_placement;
+    }
+
+    //Skips the rotation and projection while the tesseract is out of view, see ViewCuller4D
+    public void SetCulled(boolean i_isCulled) {
+        if (i_isCulled == b_isCulled) return;
+
+        b_isCulled = i_isCulled;
+        if (!b_isCulled && b_isPoseStale) {
+            b_isPoseStale = false;
+            ApplyOrientation();
+        }
+    }
+
+    public boolean IsCulled() {
+        return b_isCulled;
+    }
+
+    void SetBatched(boolean i_isBatched) {
+        b_isBatched = i_isBatched;
+        if (!b_isBatched) {
+            ApplyOrientation();
+        } else if (b_isPoseStale) {
+            //Culled since its last change, the vertices are behind the orientation and the batch has to pose it
+            b_isPoseStale = false;
+            m_changeCount++;
+        }
+    }
+
+    float[] GetRestCorners() {
+        return m_restCorners4D;
+    }
+
+    //The rest pose as a Polytope, one quad face per 4 render vertices and one cell per cube
+    Polytope GetPolytope() {
+        double[][] vertices = new double[16][4];
+        for (int i = 0; i < 16; i++) {
+            for (int d = 0; d < 4; d++) {
+                vertices[i][d] = m_restCorners4D[i * 4 + d];
+            }
+        }
+
+        List<int[]> faces = new ArrayList<int[]>();
+        List<int[]> cells = new ArrayList<int[]>();
+        for (int c = 0; c < 8; c++) {
+            int[] cell = new int[6];
+            for (int f = 0; f < 6; f++) {
+                int first = (c * 6 + f) * 4;
+                cell[f] = faces.size();
+                faces.add(new int[]{s_vertexCorners[first], s_vertexCorners[first + 1],
+                        s_vertexCorners[first + 2], s_vertexCorners[first + 3]});
+            }
+            cells.add(cell);
+        }
+        return Polytope.FromCells(4, vertices, faces, cells);
+    }
+
+    //The RGBA colour of each of the 8 cubes, shared by every tesseract and never modified
+    float[] GetCellColors() {
+        return s_colors;
+    }
+
+    //Receives the corners projected by a TesseractBatch, stored as separate X, Y and Z arrays
+    void SetProjectedCorners(float[] i_x, float[] i_y, float[] i_z, int i_offset) {
+        for (int i = 0; i < 16; i++) {
+            m_projectedCorners[i * 3] = i_x[i_offset + i];
+            m_projectedCorners[i * 3 + 1] = i_y[i_offset + i];
+            m_projectedCorners[i * 3 + 2] = i_z[i_offset + i];
+        }
+        m_changeCount++;
+
+        UploadVertices();
+    }
+
+    @Override
+    public int GetChangeCount() {
+        return m_changeCount;
+    }
+
+    public boolean IsProjectedOnGpu() {
+        return b_isProjectedOnGpu;
+    }
+
+    public boolean IsStereographicProjection() {
+        return m_projection.IsStereographic();
+    }
+
+    public float GetLightOnW() {
+        return m_projection.GetLightOnW();
     }
 }
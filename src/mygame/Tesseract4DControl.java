@@ -0,0 +1,49 @@
+package mygame;
+
+import com.jme3.material.Material;
+import com.jme3.math.Matrix4f;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.control.AbstractControl;
+
+//Feeds the 4D state of a Tesseract projected on the GPU into the Tesseract4D material of its geometry
+//Only a handful of uniforms change per frame, the vertex data itself is never uploaded again
+public class Tesseract4DControl extends AbstractControl {
+
+    private Matrix4f m_orientation = new Matrix4f();
+    private boolean b_isStereographicProjection;
+    private boolean b_isInitialized = false;
+    private int m_changeCount;
+
+    @Override
+    protected void controlUpdate(float tpf) {
+        Geometry geometry = (Geometry) spatial;
+        Tesseract tesseract = (Tesseract) geometry.getMesh();
+        Material material = geometry.getMaterial();
+
+        //Nothing to send to the GPU while the tesseract stays the same
+        if (b_isInitialized && m_changeCount == tesseract.GetChangeCount()) return;
+        m_changeCount = tesseract.GetChangeCount();
+
+        Matrix4D orientation = tesseract.GetOrientation();
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                m_orientation.set(r, c, orientation.Get(r, c));
+            }
+        }
+        material.setMatrix4("Orientation4D", m_orientation);
+
+        //Changing the projection switches a shader define, so it is only touched when it actually changes
+        if (!b_isInitialized || b_isStereographicProjection != tesseract.IsStereographicProjection()) {
+            b_isStereographicProjection = tesseract.IsStereographicProjection();
+            material.setBoolean("Stereographic", b_isStereographicProjection);
+            material.setFloat("LightOnW", tesseract.GetLightOnW());
+            b_isInitialized = true;
+        }
+    }
+
+    @Override
+    protected void controlRender(RenderManager rm, ViewPort vp) {
+    }
+}
@@ -0,0 +1,256 @@
+package mygame;
+
+import java.nio.FloatBuffer;
+
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
+import com.jme3.scene.VertexBuffer.Type;
+import com.jme3.scene.VertexBuffer.Usage;
+import com.jme3.scene.instancing.InstancedGeometry;
+import com.jme3.util.BufferUtils;
+
+/*
+    Draws a whole population of tesseracts with a single instanced draw call.
+    Every instance shares the 4D rest pose of one Tesseract projected on the GPU, only the per-instance attributes differ:
+        InstanceData - the 4D orientation as a mat4
+        TexCoord6 - the colour the cell colours are multiplied with
+        TexCoord7 - the 3D translation in XYZ and the uniform scale in W
+        TexCoord8 - the offset along the W axis applied before the projection
+    The geometry needs the Tesseract4D material with Instanced4D set and a Tesseract4DControl for the projection settings.
+ */
+public class Tesseract4DInstances extends InstancedGeometry implements ChangeTracked {
+
+    private Tesseract m_tesseract;
+    private int m_maxInstances;
+    private int m_instanceCount = 0;
+
+    private Matrix4D[] m_orientations;
+    private float[] m_translations; //XYZ translation followed by the scale
+    private float[] m_wOffsets;
+
+    private FloatBuffer m_orientationData;
+    private FloatBuffer m_colorData;
+    private FloatBuffer m_translationData;
+    private FloatBuffer m_wOffsetData;
+    private VertexBuffer[] m_instanceData = new VertexBuffer[4];
+
+    private boolean b_isOrientationDirty = false;
+    private boolean b_isColorDirty = false;
+    private boolean b_isTranslationDirty = false;
+    private int m_changeCount = 0;
+
+    private BoundingSphere m_localBound = new BoundingSphere(0.f, new Vector3f());
+
+    public Tesseract4DInstances(String i_name, Tesseract i_tesseract, int i_maxInstances) {
+        super(i_name);
+        if (!i_tesseract.IsProjectedOnGpu()) {
+            throw new IllegalArgumentException("Instanced tesseracts need a Tesseract projected on the GPU");
+        }
+
+        m_tesseract = i_tesseract;
+        m_maxInstances = i_maxInstances;
+        setMesh(i_tesseract);
+
+        //Unlike regular instancing, the instances are placed by the shader relative to this geometry
+        setIgnoreTransform(false);
+
+        m_orientations = new Matrix4D[i_maxInstances];
+        for (int i = 0; i < i_maxInstances; i++) {
+            m_orientations[i] = new Matrix4D();
+        }
+        m_translations = new float[i_maxInstances * 4];
+        m_wOffsets = new float[i_maxInstances];
+
+        m_orientationData = BufferUtils.createFloatBuffer(i_maxInstances * 16);
+        m_colorData = BufferUtils.createFloatBuffer(i_maxInstances * 4);
+        m_translationData = BufferUtils.createFloatBuffer(i_maxInstances * 4);
+        m_wOffsetData = BufferUtils.createFloatBuffer(i_maxInstances);
+
+        m_instanceData[0] = CreateInstanceBuffer(Type.InstanceData, 16, m_orientationData);
+        m_instanceData[1] = CreateInstanceBuffer(Type.TexCoord6, 4, m_colorData);
+        m_instanceData[2] = CreateInstanceBuffer(Type.TexCoord7, 4, m_translationData);
+        m_instanceData[3] = CreateInstanceBuffer(Type.TexCoord8, 1, m_wOffsetData);
+    }
+
+    private static VertexBuffer CreateInstanceBuffer(Type i_type, int i_components, FloatBuffer i_data) {
+        VertexBuffer buffer = new VertexBuffer(i_type);
+        buffer.setInstanced(true);
+        buffer.setupData(Usage.Stream, i_components, Format.Float, i_data);
+        return buffer;
+    }
+
+    //Adds an instance at the origin with the identity orientation and returns its index
+    public int AddInstance() {
+        if (m_instanceCount == m_maxInstances) {
+            throw new IllegalStateException("All " + m_maxInstances + " instances are already in use");
+        }
+
+        int index = m_instanceCount++;
+        SetInstance(index, m_orientations[index].SetIdentity(), Vector3f.ZERO, 1.f, 0.f, ColorRGBA.White);
+        return index;
+    }
+
+    public void SetInstance(int i_index, Matrix4D i_orientation, Vector3f i_translation, float i_scale, float i_wOffset, ColorRGBA i_color) {
+        SetOrientation(i_index, i_orientation);
+        SetTranslation(i_index, i_translation, i_scale, i_wOffset);
+        SetColor(i_index, i_color);
+    }
+
+    public void SetOrientation(int i_index, Matrix4D i_orientation) {
+        m_orientations[i_index].Set(i_orientation);
+        b_isOrientationDirty = true;
+        m_changeCount++;
+    }
+
+    public Matrix4D GetOrientation(int i_index) {
+        return m_orientations[i_index];
+    }
+
+    public void SetTranslation(int i_index, Vector3f i_translation, float i_scale, float i_wOffset) {
+        m_translations[i_index * 4] = i_translation.x;
+        m_translations[i_index * 4 + 1] = i_translation.y;
+        m_translations[i_index * 4 + 2] = i_translation.z;
+        m_translations[i_index * 4 + 3] = i_scale;
+        m_wOffsets[i_index] = i_wOffset;
+        b_isTranslationDirty = true;
+        m_changeCount++;
+        setBoundRefresh();
+    }
+
+    public void SetColor(int i_index, ColorRGBA i_color) {
+        m_colorData.put(i_index * 4, i_color.r);
+        m_colorData.put(i_index * 4 + 1, i_color.g);
+        m_colorData.put(i_index * 4 + 2, i_color.b);
+        m_colorData.put(i_index * 4 + 3, i_color.a);
+        b_isColorDirty = true;
+        m_changeCount++;
+    }
+
+    //Applies the same 4D rotation to every instance, after its own orientation
+    public void RotateAll(Matrix4D i_rotation) {
+        for (int i = 0; i < m_instanceCount; i++) {
+            m_orientations[i].Compose(i_rotation);
+        }
+        b_isOrientationDirty = true;
+        m_changeCount++;
+    }
+
+    //The Tesseract4DControl picks the projection up from the shared tesseract, the bound holds for both projections
+    public void ToggleProjection() {
+        m_tesseract.ToggleProjection();
+        m_changeCount++;
+    }
+
+    @Override
+    public int GetChangeCount() {
+        return m_changeCount;
+    }
+
+    public int GetInstanceCount() {
+        return m_instanceCount;
+    }
+
+    @Override
+    public int getActualNumInstances() {
+        return m_instanceCount;
+    }
+
+    //Called by the renderer right before drawing, so changed data is uploaded at most once per frame
+    @Override
+    public VertexBuffer[] getAllInstanceData() {
+        if (b_isOrientationDirty) {
+            //GLSL reads a mat4 attribute column by column
+            for (int i = 0; i < m_instanceCount; i++) {
+                for (int c = 0; c < 4; c++) {
+                    for (int r = 0; r < 4; r++) {
+                        m_orientationData.put(i * 16 + c * 4 + r, m_orientations[i].Get(r, c));
+                    }
+                }
+            }
+            UpdateInstanceBuffer(m_instanceData[0], m_orientationData, 16);
+            b_isOrientationDirty = false;
+        }
+
+        if (b_isColorDirty) {
+            UpdateInstanceBuffer(m_instanceData[1], m_colorData, 4);
+            b_isColorDirty = false;
+        }
+
+        if (b_isTranslationDirty) {
+            m_translationData.clear();
+            m_translationData.put(m_translations, 0, m_instanceCount * 4);
+            m_wOffsetData.clear();
+            m_wOffsetData.put(m_wOffsets, 0, m_instanceCount);
+            UpdateInstanceBuffer(m_instanceData[2], m_translationData, 4);
+            UpdateInstanceBuffer(m_instanceData[3], m_wOffsetData, 1);
+            b_isTranslationDirty = false;
+        }
+
+        return m_instanceData;
+    }
+
+    //Only the used instances are uploaded
+    private void UpdateInstanceBuffer(VertexBuffer i_buffer, FloatBuffer i_data, int i_components) {
+        i_data.limit(m_instanceCount * i_components);
+        i_data.position(0);
+        i_buffer.updateData(i_data);
+    }
+
+    @Override
+    protected void updateWorldBound() {
+        refreshFlags &= ~RF_BOUND;
+
+        //Every instance is contained in the projection of the 4D sphere around it, whatever its orientation
+        //The stereographic projection only ever enlarges that sphere, so its radius holds for both projections.
+        //The spheres are merged by hand, this runs for every instance whenever one of them moved
+        float restRadius = m_tesseract.GetRestRadius();
+        float lightOnW = m_tesseract.GetLightOnW();
+        float cx = 0.f, cy = 0.f, cz = 0.f, boundRadius = 0.f;
+        for (int i = 0; i < m_instanceCount; i++) {
+            float radius = restRadius * m_translations[i * 4 + 3];
+            float distanceToLight = lightOnW - Math.abs(m_wOffsets[i]) - radius;
+            if (distanceToLight <= 0.f) {
+                //The instance reaches the light and its projection is unbounded
+                cx = cy = cz = 0.f;
+                boundRadius = Float.POSITIVE_INFINITY;
+                break;
+            }
+            radius *= lightOnW / distanceToLight;
+
+            float x = m_translations[i * 4], y = m_translations[i * 4 + 1], z = m_translations[i * 4 + 2];
+            if (i == 0) {
+                cx = x;
+                cy = y;
+                cz = z;
+                boundRadius = radius;
+                continue;
+            }
+
+            float dx = x - cx, dy = y - cy, dz = z - cz;
+            float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (distance + radius <= boundRadius) continue;
+            if (distance + boundRadius <= radius) {
+                cx = x;
+                cy = y;
+                cz = z;
+                boundRadius = radius;
+                continue;
+            }
+
+            //The smallest sphere around both, its centre moves towards the instance
+            float merged = (distance + boundRadius + radius) * 0.5f;
+            float t = (merged - boundRadius) / distance;
+            cx += dx * t;
+            cy += dy * t;
+            cz += dz * t;
+            boundRadius = merged;
+        }
+        m_localBound.setCenter(cx, cy, cz);
+        m_localBound.setRadius(boundRadius);
+
+        worldBound = m_localBound.transform(worldTransform, worldBound);
+    }
+}
@@ -0,0 +1,205 @@
+package mygame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/*
+    Rotates and projects the corners of many tesseracts in parallel on a fork/join pool.
+    The corners of every tesseract are stored structure-of-arrays style (all X, then all Y, ...) so the worker threads
+    stream through contiguous memory, 16 corners per tesseract.
+
+    Each frame the render thread calls Complete() to wait for the previous step and upload its results,
+    changes the orientations, then calls Submit() to start the next step in the background.
+    Only the tesseracts that changed since their last upload are stepped and uploaded again.
+    Between Submit() and Complete() the render thread must not touch the batch, everything the workers need is
+    copied from the tesseracts during Submit().
+ */
+public class TesseractBatch implements ChangeTracked {
+
+    //Number of tesseracts a worker processes without splitting the task any further
+    private static final int TESSERACTS_PER_TASK = 64;
+
+    private final ForkJoinPool m_pool;
+    private final boolean b_isPoolOwned; //Created by the batch, which shuts it down
+    private final ProjectionKernel m_kernel = ProjectionKernel.Get();
+    private final List<Tesseract> m_tesseracts = new ArrayList<Tesseract>();
+    private int m_capacity;
+
+    private float[] m_restX, m_restY, m_restZ, m_restW;
+    private float[] m_projectedX, m_projectedY, m_projectedZ;
+    private float[] m_orientations; //16 floats per tesseract, row major
+    private float[] m_lightOnW; //0 for the orthographic projection
+    private boolean[] m_isSkipped; //Culled or unchanged when the step was submitted, neither projected nor uploaded
+
+    private ForkJoinTask<?> m_pendingStep;
+
+    //The change counts of the tesseracts as of their last upload, a step is only needed when one of them differs
+    private int[] m_uploadedChangeCounts;
+    private int m_changeCount = 0;
+
+    //The batch gets a pool of its own, Shutdown() stops its threads
+    public TesseractBatch(int i_capacity) {
+        this(i_capacity, new ForkJoinPool(), true);
+    }
+
+    //Shares a pool owned by the caller, Shutdown() leaves it running
+    public TesseractBatch(int i_capacity, ForkJoinPool i_pool) {
+        this(i_capacity, i_pool, false);
+    }
+
+    private TesseractBatch(int i_capacity, ForkJoinPool i_pool, boolean i_isPoolOwned) {
+        m_pool = i_pool;
+        b_isPoolOwned = i_isPoolOwned;
+        m_capacity = i_capacity;
+
+        m_restX = new float[i_capacity * 16];
+        m_restY = new float[i_capacity * 16];
+        m_restZ = new float[i_capacity * 16];
+        m_restW = new float[i_capacity * 16];
+        m_projectedX = new float[i_capacity * 16];
+        m_projectedY = new float[i_capacity * 16];
+        m_projectedZ = new float[i_capacity * 16];
+        m_orientations = new float[i_capacity * 16];
+        m_lightOnW = new float[i_capacity];
+        m_isSkipped = new boolean[i_capacity];
+        m_uploadedChangeCounts = new int[i_capacity];
+    }
+
+    //From now on the tesseract only accumulates its orientation, the batch does the per-vertex work
+    public void Add(Tesseract i_tesseract) {
+        if (i_tesseract.IsProjectedOnGpu()) {
+            throw new IllegalArgumentException("A Tesseract projected on the GPU cannot be batched");
+        }
+        if (m_tesseracts.size() == m_capacity) {
+            throw new IllegalStateException("The batch is full, its capacity is " + m_capacity);
+        }
+        Complete();
+
+        int offset = m_tesseracts.size() * 16;
+        float[] rest = i_tesseract.GetRestCorners();
+        for (int i = 0; i < 16; i++) {
+            m_restX[offset + i] = rest[i * 4];
+            m_restY[offset + i] = rest[i * 4 + 1];
+            m_restZ[offset + i] = rest[i * 4 + 2];
+            m_restW[offset + i] = rest[i * 4 + 3];
+        }
+
+        m_tesseracts.add(i_tesseract);
+        //Until its next change the tesseract shows the vertices it projected itself, SetBatched() counts a stale pose
+        m_uploadedChangeCounts[m_tesseracts.size() - 1] = i_tesseract.GetChangeCount();
+        i_tesseract.SetBatched(true);
+    }
+
+    //Only accumulates the orientations, the vertices follow with the next Submit()
+    public void Rotate(float i_angle, Tesseract.RotationalPlane i_rotationPlane) {
+        for (int t = 0; t < m_tesseracts.size(); t++) {
+            m_tesseracts.get(t).Rotate(i_angle, i_rotationPlane);
+        }
+    }
+
+    //Like Rotate(), the vertices follow with the next Submit()
+    //A pending step still projects with the old projection, it is uploaded first so the toggle is not taken as done
+    public void ToggleProjection() {
+        Complete();
+        for (int t = 0; t < m_tesseracts.size(); t++) {
+            m_tesseracts.get(t).ToggleProjection();
+        }
+    }
+
+    public int GetSize() {
+        return m_tesseracts.size();
+    }
+
+    //Starts rotating and projecting every tesseract with its current orientation on the worker threads
+    //Does nothing while none of the tesseracts in view changed since the last step, culled ones are skipped and
+    //caught up by the first step after they are in view again
+    public void Submit() {
+        Complete();
+
+        int count = m_tesseracts.size();
+        boolean changed = false;
+        for (int t = 0; t < count; t++) {
+            Tesseract tesseract = m_tesseracts.get(t);
+            m_isSkipped[t] = tesseract.IsCulled() || tesseract.GetChangeCount() == m_uploadedChangeCounts[t];
+            changed |= !m_isSkipped[t];
+        }
+        if (!changed) return;
+
+        for (int t = 0; t < count; t++) {
+            if (m_isSkipped[t]) continue;
+
+            Tesseract tesseract = m_tesseracts.get(t);
+            tesseract.GetOrientation().Get(m_orientations, t * 16);
+            m_lightOnW[t] = tesseract.IsStereographicProjection() ? tesseract.GetLightOnW() : 0.f;
+        }
+
+        m_pendingStep = m_pool.submit(new StepTask(0, count));
+    }
+
+    //The synchronisation point: waits for the submitted step and uploads its results on the calling thread
+    public void Complete() {
+        if (m_pendingStep == null) return;
+
+        m_pendingStep.join();
+        m_pendingStep = null;
+
+        for (int t = 0; t < m_tesseracts.size(); t++) {
+            if (m_isSkipped[t]) continue;
+
+            Tesseract tesseract = m_tesseracts.get(t);
+            tesseract.SetProjectedCorners(m_projectedX, m_projectedY, m_projectedZ, t * 16);
+            m_uploadedChangeCounts[t] = tesseract.GetChangeCount();
+        }
+        m_changeCount++;
+    }
+
+    //Waits for the pending step and stops the worker threads of the pool the batch created
+    public void Shutdown() {
+        Complete();
+        if (b_isPoolOwned) {
+            m_pool.shutdown();
+        }
+    }
+
+    @Override
+    public int GetChangeCount() {
+        return m_changeCount;
+    }
+
+    private void Step(int i_first, int i_last) {
+        for (int t = i_first; t < i_last; t++) {
+            if (m_isSkipped[t]) continue;
+
+            m_kernel.RotateProject(m_orientations, t * 16, m_lightOnW[t],
+                    m_restX, m_restY, m_restZ, m_restW, t * 16, 16,
+                    m_projectedX, m_projectedY, m_projectedZ, t * 16);
+        }
+    }
+
+    private class StepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int m_first;
+        private final int m_last;
+
+        StepTask(int i_first, int i_last) {
+            m_first = i_first;
+            m_last = i_last;
+        }
+
+        @Override
+        protected void compute() {
+            if (m_last - m_first <= TESSERACTS_PER_TASK) {
+                Step(m_first, m_last);
+                return;
+            }
+
+            int middle = (m_first + m_last) >>> 1;
+            invokeAll(new StepTask(m_first, middle), new StepTask(middle, m_last));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package mygame;
+
+//A rotation, a uniform scale and a translation of 4 dimensional space, applied in that order
+//Like jME's Transform, combining the transform of a parent with the local one of its child gives the child's world transform
+public class Transform4D {
+
+    private final Matrix4D m_rotation = new Matrix4D();
+    private final float[] m_translation = new float[4];
+    private float m_scale = 1.f;
+
+    public Transform4D SetIdentity() {
+        m_rotation.SetIdentity();
+        for (int i = 0; i < 4; i++) {
+            m_translation[i] = 0.f;
+        }
+        m_scale = 1.f;
+        return this;
+    }
+
+    public Transform4D Set(Transform4D i_other) {
+        m_rotation.Set(i_other.m_rotation);
+        System.arraycopy(i_other.m_translation, 0, m_translation, 0, 4);
+        m_scale = i_other.m_scale;
+        return this;
+    }
+
+    public Matrix4D GetRotation() {
+        return m_rotation;
+    }
+
+    public float GetTranslation(int i_axis) {
+        return m_translation[i_axis];
+    }
+
+    public Transform4D SetTranslation(float i_x, float i_y, float i_z, float i_w) {
+        m_translation[0] = i_x;
+        m_translation[1] = i_y;
+        m_translation[2] = i_z;
+        m_translation[3] = i_w;
+        return this;
+    }
+
+    public float GetScale() {
+        return m_scale;
+    }
+
+    public Transform4D SetScale(float i_scale) {
+        m_scale = i_scale;
+        return this;
+    }
+
+    public boolean IsIdentityPlacement() {
+        return m_scale == 1.f && m_translation[0] == 0.f && m_translation[1] == 0.f
+                && m_translation[2] == 0.f && m_translation[3] == 0.f;
+    }
+
+    //this = i_parent applied after i_local, neither of them may be this
+    public Transform4D Combine(Transform4D i_parent, Transform4D i_local) {
+        m_rotation.Set(i_local.m_rotation).Compose(i_parent.m_rotation);
+        m_scale = i_parent.m_scale * i_local.m_scale;
+
+        //The local translation is rotated and scaled by the parent before its own translation is added
+        Matrix4D r = i_parent.m_rotation;
+        float[] t = i_local.m_translation;
+        for (int i = 0; i < 4; i++) {
+            float rotated = r.Get(i, 0) * t[0] + r.Get(i, 1) * t[1] + r.Get(i, 2) * t[2] + r.Get(i, 3) * t[3];
+            m_translation[i] = rotated * i_parent.m_scale + i_parent.m_translation[i];
+        }
+        return this;
+    }
+
+    //Transforms i_count points stored as packed XYZW floats, i_src and o_dst may be the same array
+    public void Transform(float[] i_src, int i_srcOffset, float[] o_dst, int i_dstOffset, int i_count) {
+        m_rotation.Transform(i_src, i_srcOffset, o_dst, i_dstOffset, i_count);
+        Place(o_dst, i_dstOffset, i_count);
+    }
+
+    //Scales and translates already rotated points, for callers that keep the rotation themselves
+    void Place(float[] io_points, int i_offset, int i_count) {
+        if (IsIdentityPlacement()) return;
+
+        for (int i = 0; i < i_count; i++) {
+            int d = i_offset + i * 4;
+            io_points[d] = io_points[d] * m_scale + m_translation[0];
+            io_points[d + 1] = io_points[d + 1] * m_scale + m_translation[1];
+            io_points[d + 2] = io_points[d + 2] * m_scale + m_translation[2];
+            io_points[d + 3] = io_points[d + 3] * m_scale + m_translation[3];
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package mygame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jme3.app.Application;
+import com.jme3.app.state.BaseAppState;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Spatial.CullHint;
+
+/*
+    Culls CPU projected tesseracts in 4D, before anything is rotated or projected. A culled Tesseract only accumulates
+    its orientation and placement and a TesseractBatch skips it, so an object out of view costs the test below.
+
+    Every tesseract lies within the hypersphere of radius scale * rest radius around its 4D translation, whatever its
+    orientation. Before the frame's rotations, the state bounds the projection of that hypersphere with a 3D box and
+    tests it against the camera frustum:
+        Orthographic - the box around the 3D ball with the same centre and radius
+        Stereographic - every point is scaled by L / (L - w), which lies between its values at the lowest and highest
+            w of the hypersphere, so each axis is the product of two intervals. A hypersphere entirely beyond the
+            light on w = L is culled, like geometry behind a camera. One reaching the light projects to infinity and
+            is never culled
+
+    The geometry of a culled tesseract is hidden as well: its mesh still holds the last pose it was projected with.
+    Being an app state it updates before SimpleApplication.simpleUpdate(), where the scene rotates its tesseracts.
+ */
+public class ViewCuller4D extends BaseAppState {
+
+    private final List<Geometry> m_geometries = new ArrayList<Geometry>();
+    private final List<CullHint> m_hiddenHints = new ArrayList<CullHint>(); //The hints replaced while culled
+    private final BoundingBox m_projectedBound = new BoundingBox();
+    private final BoundingBox m_worldBound = new BoundingBox();
+    private int m_culledCount = 0;
+
+    public void Add(Geometry i_geometry) {
+        if (!(i_geometry.getMesh() instanceof Tesseract)) {
+            throw new IllegalArgumentException("Only tesseracts can be culled in 4D, " + i_geometry + " is not one");
+        }
+        if (((Tesseract) i_geometry.getMesh()).IsProjectedOnGpu()) {
+            throw new IllegalArgumentException("A tesseract projected on the GPU is not rotated or projected on the CPU");
+        }
+        m_geometries.add(i_geometry);
+        m_hiddenHints.add(null);
+    }
+
+    public boolean Remove(Geometry i_geometry) {
+        int index = m_geometries.indexOf(i_geometry);
+        if (index < 0) return false;
+
+        SetCulled(index, false);
+        m_geometries.remove(index);
+        m_hiddenHints.remove(index);
+        return true;
+    }
+
+    public int GetSize() {
+        return m_geometries.size();
+    }
+
+    //Number of tesseracts culled by the last update
+    public int GetCulledCount() {
+        return m_culledCount;
+    }
+
+    @Override
+    protected void initialize(Application i_app) {
+    }
+
+    @Override
+    protected void cleanup(Application i_app) {
+    }
+
+    @Override
+    protected void onEnable() {
+    }
+
+    //Without the culler everything is rotated and projected again
+    @Override
+    protected void onDisable() {
+        for (int i = 0; i < m_geometries.size(); i++) {
+            SetCulled(i, false);
+        }
+        m_culledCount = 0;
+    }
+
+    @Override
+    public void update(float i_tpf) {
+        long start = StageProfiler.Begin(StageProfiler.Stage.Cull);
+        Camera camera = getApplication().getCamera();
+        m_culledCount = 0;
+        for (int i = 0; i < m_geometries.size(); i++) {
+            boolean isCulled = !IsInView(m_geometries.get(i), camera);
+            SetCulled(i, isCulled);
+            if (isCulled) {
+                m_culledCount++;
+            }
+        }
+        StageProfiler.End(StageProfiler.Stage.Cull, start);
+    }
+
+    private void SetCulled(int i_index, boolean i_isCulled) {
+        Geometry geometry = m_geometries.get(i_index);
+        Tesseract tesseract = (Tesseract) geometry.getMesh();
+        if (tesseract.IsCulled() == i_isCulled) return;
+
+        if (i_isCulled) {
+            m_hiddenHints.set(i_index, geometry.getCullHint());
+            geometry.setCullHint(CullHint.Always);
+        } else {
+            geometry.setCullHint(m_hiddenHints.get(i_index));
+            m_hiddenHints.set(i_index, null);
+        }
+        tesseract.SetCulled(i_isCulled);
+    }
+
+    //Package private so the culling can be tested against a camera without an application
+    boolean IsInView(Geometry i_geometry, Camera i_camera) {
+        Tesseract tesseract = (Tesseract) i_geometry.getMesh();
+        Transform4D placement = tesseract.GetPlacement();
+        float radius = tesseract.GetRestRadius() * placement.GetScale();
+        float x = placement.GetTranslation(0);
+        float y = placement.GetTranslation(1);
+        float z = placement.GetTranslation(2);
+        float w = placement.GetTranslation(3);
+
+        if (!tesseract.IsStereographicProjection()) {
+            m_projectedBound.setCenter(x, y, z);
+            m_projectedBound.setXExtent(radius);
+            m_projectedBound.setYExtent(radius);
+            m_projectedBound.setZExtent(radius);
+        } else {
+            float light = tesseract.GetLightOnW();
+            if (w - radius >= light) return false;
+            if (w + radius >= light) return true;
+
+            float nearScale = light / (light - (w - radius));
+            float farScale = light / (light - (w + radius));
+            float minX = ScaledMin(x - radius, nearScale, farScale), maxX = ScaledMax(x + radius, nearScale, farScale);
+            float minY = ScaledMin(y - radius, nearScale, farScale), maxY = ScaledMax(y + radius, nearScale, farScale);
+            float minZ = ScaledMin(z - radius, nearScale, farScale), maxZ = ScaledMax(z + radius, nearScale, farScale);
+            m_projectedBound.setCenter((minX + maxX) * 0.5f, (minY + maxY) * 0.5f, (minZ + maxZ) * 0.5f);
+            m_projectedBound.setXExtent((maxX - minX) * 0.5f);
+            m_projectedBound.setYExtent((maxY - minY) * 0.5f);
+            m_projectedBound.setZExtent((maxZ - minZ) * 0.5f);
+        }
+
+        m_projectedBound.transform(i_geometry.getWorldTransform(), m_worldBound);
+        int planeState = i_camera.getPlaneState();
+        i_camera.setPlaneState(0);
+        boolean isInView = i_camera.contains(m_worldBound) != Camera.FrustumIntersect.Outside;
+        i_camera.setPlaneState(planeState);
+        return isInView;
+    }
+
+    //Bounds of i_value * scale for a scale between the two positive ones
+    private static float ScaledMin(float i_value, float i_nearScale, float i_farScale) {
+        return i_value < 0.f ? i_value * Math.max(i_nearScale, i_farScale) : i_value * Math.min(i_nearScale, i_farScale);
+    }
+
+    private static float ScaledMax(float i_value, float i_nearScale, float i_farScale) {
+        return i_value > 0.f ? i_value * Math.max(i_nearScale, i_farScale) : i_value * Math.min(i_nearScale, i_farScale);
+    }
+}
@@ -0,0 +1,65 @@
+package mygame;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+//Queries whose reach spans more cells than an int or the 16 bit cell keys can hold, they used to never return
+public class SpatialGrid4DTest {
+
+    private static final int COUNT = 100;
+
+    private static SpatialGrid4D Grid() {
+        SpatialGrid4D grid = new SpatialGrid4D(2.f);
+        Random random = new Random(7);
+        for (int i = 0; i < COUNT; i++) {
+            grid.Add(random.nextFloat() * 100.f, random.nextFloat() * 100.f, random.nextFloat() * 100.f,
+                    random.nextFloat() * 100.f, 0.5f);
+        }
+        return grid;
+    }
+
+    //Every entry exactly once, cells met twice through aliased keys would repeat them
+    private static void AssertEveryEntryOnce(String i_message, SpatialGrid4D.Results i_results) {
+        assertEquals(i_message, COUNT, i_results.GetSize());
+        boolean[] isFound = new boolean[COUNT];
+        for (int i = 0; i < i_results.GetSize(); i++) {
+            isFound[i_results.Get(i)] = true;
+        }
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(i_message + ", entry " + i, true, isFound[i]);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void QueryRadiusWithInfiniteRadius() {
+        SpatialGrid4D grid = Grid();
+        SpatialGrid4D.Results results = new SpatialGrid4D.Results();
+        for (float radius : new float[]{1e5f, 1e10f, Float.MAX_VALUE, Float.POSITIVE_INFINITY}) {
+            results.Clear();
+            assertEquals(COUNT, grid.QueryRadius(0.f, 0.f, 0.f, 0.f, radius, results));
+            AssertEveryEntryOnce("radius " + radius, results);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void QueryOverlapsWithHugeEntry() {
+        for (float radius : new float[]{1e5f, 1e10f, Float.MAX_VALUE}) {
+            SpatialGrid4D grid = Grid();
+            int huge = grid.Add(50.f, 50.f, 50.f, 50.f, radius);
+            SpatialGrid4D.Results pairs = new SpatialGrid4D.Results();
+            grid.QueryOverlaps(pairs);
+
+            //The small entries are far apart, so the pairs with the huge entry are all there is
+            SpatialGrid4D.Results others = new SpatialGrid4D.Results();
+            for (int p = 0; p < pairs.GetSize(); p += 2) {
+                int a = pairs.Get(p), b = pairs.Get(p + 1);
+                if (a == huge || b == huge) {
+                    others.Add(a == huge ? b : a);
+                }
+            }
+            AssertEveryEntryOnce("radius " + radius, others);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package mygame;
+
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector4f;
+import com.jme3.scene.VertexBuffer.Type;
+
+//Rotates and projects a Tesseract and the Vector4f implementation it replaced side by side and compares the vertices
+public class TesseractRotationTest {
+
+    private static final float ANGLE = 7.3f;
+    private static final int STEPS = 100;
+    private static final float TOLERANCE = 1e-4f;
+
+    //A box with different sides, so swapped axes do not go unnoticed
+    private static final Vector4f BOX_SIZE = new Vector4f(1.f, 2.f, 0.5f, 1.5f);
+
+    @Test
+    public void RotateMatchesVector4fPath() {
+        for (Tesseract.RotationalPlane plane : Tesseract.RotationalPlane.values()) {
+            Tesseract tesseract = new Tesseract(BOX_SIZE);
+            ReferenceTesseract reference = new ReferenceTesseract(BOX_SIZE, Positions(tesseract));
+            AssertSameVertices(plane + " at rest", reference, tesseract);
+
+            for (int step = 1; step <= STEPS; step++) {
+                tesseract.Rotate(ANGLE, plane);
+                reference.Rotate(ANGLE, plane);
+                //Both projections are checked on the way
+                if (step % 25 == 0) {
+                    tesseract.ToggleProjection();
+                    reference.ToggleProjection();
+                }
+                AssertSameVertices(plane + " after " + step + " steps", reference, tesseract);
+            }
+        }
+    }
+
+    private static FloatBuffer Positions(Tesseract i_tesseract) {
+        return (FloatBuffer) i_tesseract.getBuffer(Type.Position).getData();
+    }
+
+    private static void AssertSameVertices(String i_message, ReferenceTesseract i_reference, Tesseract i_tesseract) {
+        FloatBuffer positions = Positions(i_tesseract);
+        assertEquals(i_message, 192 * 3, positions.limit());
+
+        float[] expected = i_reference.Project();
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i_message + ", vertex " + i / 3, expected[i], positions.get(i), TOLERANCE);
+        }
+    }
+
+    /*
+        The Vector4f rotation and projection Tesseract used before its vertices were stored in flat float arrays:
+        every render vertex is a Vector4f that each Rotate() replaces with a new, rotated one.
+        The render vertices are matched to the corners of the box by their unrotated projection.
+     */
+    private static class ReferenceTesseract {
+
+        private final Vector4f[] m_vertices4D = new Vector4f[192];
+        private boolean b_isStereographicProjection = true;
+        private final float m_lightOnW = 50.f;
+
+        ReferenceTesseract(Vector4f i_boxSize, FloatBuffer i_restPositions) {
+            Vector4f[] corners = new Vector4f[16];
+            for (int i = 0; i < 16; i++) {
+                corners[i] = new Vector4f((i & 1) == 0 ? -i_boxSize.x : i_boxSize.x, (i & 2) == 0 ? -i_boxSize.y : i_boxSize.y,
+                        (i & 4) == 0 ? -i_boxSize.z : i_boxSize.z, (i & 8) == 0 ? -i_boxSize.w : i_boxSize.w);
+            }
+
+            for (int v = 0; v < 192; v++) {
+                for (Vector4f corner : corners) {
+                    float scale = m_lightOnW / (m_lightOnW - corner.w);
+                    if (FastMath.abs(corner.x * scale - i_restPositions.get(v * 3)) < TOLERANCE
+                            && FastMath.abs(corner.y * scale - i_restPositions.get(v * 3 + 1)) < TOLERANCE
+                            && FastMath.abs(corner.z * scale - i_restPositions.get(v * 3 + 2)) < TOLERANCE) {
+                        m_vertices4D[v] = corner;
+                    }
+                }
+                assertTrue("Render vertex " + v + " is not a corner of the box", m_vertices4D[v] != null);
+            }
+        }
+
+        void ToggleProjection() {
+            b_isStereographicProjection = !b_isStereographicProjection;
+        }
+
+        float[] Project() {
+            float[] positions = new float[192 * 3];
+            for (int i = 0; i < 192; i++) {
+                if (b_isStereographicProjection) {
+                    positions[i * 3] = m_vertices4D[i].x * m_lightOnW / (m_lightOnW - m_vertices4D[i].w);
+                    positions[i * 3 + 1] = m_vertices4D[i].y * m_lightOnW / (m_lightOnW - m_vertices4D[i].w);
+                    positions[i * 3 + 2] = m_vertices4D[i].z * m_lightOnW / (m_lightOnW - m_vertices4D[i].w);
+                } else {
+                    positions[i * 3] = m_vertices4D[i].x;
+                    positions[i * 3 + 1] = m_vertices4D[i].y;
+                    positions[i * 3 + 2] = m_vertices4D[i].z;
+                }
+            }
+            return positions;
+        }
+
+        void Rotate(float i_angle, Tesseract.RotationalPlane i_rotationPlane) {
+            float cos = FastMath.cos(i_angle * FastMath.DEG_TO_RAD);
+            float sin = FastMath.sin(i_angle * FastMath.DEG_TO_RAD);
+            float x, y, z, w;
+            for (int i = 0; i < 192; i++) {
+                Vector4f v = m_vertices4D[i];
+                switch (i_rotationPlane) {
+                    case XY: {
+                        x = cos * v.x - sin * v.y;
+                        y = sin * v.x + cos * v.y;
+                        m_vertices4D[i] = new Vector4f(x, y, v.z, v.w);
+                        break;
+                    }
+
+                    case XZ: {
+                        x = cos * v.x - sin * v.z;
+                        z = sin * v.x + cos * v.z;
+                        m_vertices4D[i] = new Vector4f(x, v.y, z, v.w);
+                        break;
+                    }
+
+                    case YZ: {
+                        y = cos * v.y - sin * v.z;
+                        z = sin * v.y + cos * v.z;
+                        m_vertices4D[i] = new Vector4f(v.x, y, z, v.w);
+                        break;
+                    }
+
+                    case XW: {
+                        x = cos * v.x - sin * v.w;
+                        w = sin * v.x + cos * v.w;
+                        m_vertices4D[i] = new Vector4f(x, v.y, v.z, w);
+                        break;
+                    }
+
+                    case YW: {
+                        y = cos * v.y - sin * v.w;
+                        w = sin * v.y + cos * v.w;
+                        m_vertices4D[i] = new Vector4f(v.x, y, v.z, w);
+                        break;
+                    }
+
+                    case ZW: {
+                        z = cos * v.z - sin * v.w;
+                        w = sin * v.z + cos * v.w;
+                        m_vertices4D[i] = new Vector4f(v.x, v.y, z, w);
+                        break;
+                    }
+
+                    case XYZW: {
+                        x = cos * v.x - sin * v.y;
+                        y = sin * v.x + cos * v.y;
+                        z = cos * v.z - sin * v.w;
+                        w = sin * v.z + cos * v.w;
+                        m_vertices4D[i] = new Vector4f(x, y, z, w);
+                        break;
+                    }
+
+                    case XZYW: {
+                        x = cos * v.x - sin * v.z;
+                        z = sin * v.x + cos * v.z;
+                        y = cos * v.y - sin * v.w;
+                        w = sin * v.y + cos * v.w;
+                        m_vertices4D[i] = new Vector4f(x, y, z, w);
+                        break;
+                    }
+
+                    case YZXW: {
+                        y = cos * v.y - sin * v.z;
+                        z = sin * v.y + cos * v.z;
+                        x = cos * v.x - sin * v.w;
+                        w = sin * v.x + cos * v.w;
+                        m_vertices4D[i] = new Vector4f(x, y, z, w);
+                        break;
+                    }
+
+                    case None: {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}